@@ -0,0 +1,15 @@
+package de.timmi6790.minecraft;
+
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+public class Config {
+    // Names per request to the mojang multi profile endpoint, mojang allows up to 10
+    private int mojangBulkSize = 10;
+    // Name to uuid mappings that survive restarts, empty to only keep them in memory
+    private String playerNameStorePath = "data/player_names.log";
+    // Older mappings are still used, but revalidated in the background
+    private long playerNameMaxAge = TimeUnit.DAYS.toMillis(1);
+}
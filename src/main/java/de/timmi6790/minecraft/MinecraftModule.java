@@ -1,28 +1,67 @@
 package de.timmi6790.minecraft;
 
+import de.timmi6790.discord_framework.DiscordBot;
 import de.timmi6790.discord_framework.modules.AbstractModule;
 import de.timmi6790.discord_framework.modules.command.CommandModule;
+import de.timmi6790.discord_framework.modules.config.ConfigModule;
 import de.timmi6790.minecraft.commands.NamesCommand;
+import de.timmi6790.minecraft.mojang_api.MojangApi;
+import de.timmi6790.minecraft.mojang_api.PlayerNameStore;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 @Getter
 @EqualsAndHashCode(callSuper = true)
 public class MinecraftModule extends AbstractModule {
+    private Config minecraftConfig;
+    private PlayerNameStore playerNameStore;
+
     public MinecraftModule() {
         super("Minecraft");
 
         this.addDependenciesAndLoadAfter(
+                ConfigModule.class,
                 CommandModule.class
         );
     }
 
     @Override
     public void onInitialize() {
+        this.minecraftConfig = this.getModuleOrThrow(ConfigModule.class)
+                .registerAndGetConfig(this, new Config());
+        MojangApi.setBulkSize(this.minecraftConfig.getMojangBulkSize());
+        this.openPlayerNameStore();
+
         this.getModuleOrThrow(CommandModule.class).registerCommands(
                 this,
                 new NamesCommand()
         );
     }
 
+    @Override
+    public void onDisable() {
+        if (this.playerNameStore != null) {
+            MojangApi.setPlayerNameStore(null, this.minecraftConfig.getPlayerNameMaxAge());
+            this.playerNameStore.close();
+            this.playerNameStore = null;
+        }
+    }
+
+    private void openPlayerNameStore() {
+        final String storePath = this.minecraftConfig.getPlayerNameStorePath();
+        if (storePath == null || storePath.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.playerNameStore = PlayerNameStore.open(Paths.get(storePath));
+            MojangApi.setPlayerNameStore(this.playerNameStore, this.minecraftConfig.getPlayerNameMaxAge());
+        } catch (final IOException e) {
+            // Names are still resolved through mojang
+            DiscordBot.getLogger().error(e, "Failed to open the player name store {}", storePath);
+        }
+    }
 }
@@ -1,36 +1,193 @@
 package de.timmi6790.minecraft.mojang_api;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import de.timmi6790.discord_framework.DiscordBot;
 import de.timmi6790.minecraft.mojang_api.models.MojangUser;
 import de.timmi6790.minecraft.mojang_api.models.NameHistory;
+import de.timmi6790.minecraft.utilities.JavaUtilities;
 import kong.unirest.GetRequest;
 import kong.unirest.HttpResponse;
 import kong.unirest.Unirest;
+import lombok.NonNull;
 import lombok.experimental.UtilityClass;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @UtilityClass
 public class MojangApi {
+    private static final int MAX_BULK_SIZE = 10;
+    // Time to collect concurrent lookups into one request
+    private static final long BULK_DELAY = 10;
+    private static final int REQUEST_THREADS = 4;
+
     private final Gson gson = new GsonBuilder()
             .registerTypeAdapter(MojangUser.class, new MojangUser.MojangUserDeserializer())
             .registerTypeAdapter(NameHistory.class, new NameHistory.NameHistoryDeserializer())
             .create();
 
-    private final LoadingCache<String, Optional<MojangUser>> playerCache = Caffeine.newBuilder()
+    private final ScheduledExecutorService requestExecutor = createRequestExecutor();
+
+    // Lookups that are not requested yet, by lower case name
+    private final Object pendingLookupsLock = new Object();
+    private Map<String, CompletableFuture<Optional<MojangUser>>> pendingLookups = new HashMap<>();
+    private volatile int bulkSize = MAX_BULK_SIZE;
+
+    // Second level below the player cache, names older than the max age are answered from it and revalidated
+    private volatile PlayerNameStore playerNameStore;
+    private volatile long playerNameMaxAge;
+
+    // Players by lower case name. Failed requests are not cached
+    private final AsyncLoadingCache<String, Optional<MojangUser>> playerCache = Caffeine.newBuilder()
             .expireAfterWrite(10, TimeUnit.MINUTES)
             .expireAfterAccess(5, TimeUnit.MINUTES)
-            .build(playerName -> parseJsonResponse(
-                    Unirest.get("https://api.mojang.com/users/profiles/minecraft/{player}")
-                            .routeParam("player", playerName),
-                    MojangUser.class
-            ));
+            .buildAsync(new AsyncCacheLoader<String, Optional<MojangUser>>() {
+                @Override
+                public CompletableFuture<Optional<MojangUser>> asyncLoad(final String playerName, final Executor executor) {
+                    return loadUser(playerName);
+                }
+
+                @Override
+                public CompletableFuture<Map<String, Optional<MojangUser>>> asyncLoadAll(final Iterable<? extends String> playerNames,
+                                                                                        final Executor executor) {
+                    final Map<String, CompletableFuture<Optional<MojangUser>>> lookups = new HashMap<>();
+                    for (final String playerName : playerNames) {
+                        lookups.put(playerName, loadUser(playerName));
+                    }
+                    // All names are known, there is no reason to wait for more
+                    flushLookups();
+
+                    return CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+                            .thenApply(ignore -> {
+                                final Map<String, Optional<MojangUser>> users = new HashMap<>(lookups.size());
+                                lookups.forEach((playerName, lookup) -> users.put(playerName, lookup.join()));
+                                return users;
+                            });
+                }
+            });
+
+    private ScheduledExecutorService createRequestExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newScheduledThreadPool(REQUEST_THREADS, runnable -> {
+            final Thread thread = new Thread(runnable, "mojang-api-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the names per multi profile request, limited to the 10 names allowed by mojang.
+     */
+    public void setBulkSize(final int bulkSize) {
+        MojangApi.bulkSize = Math.max(1, Math.min(MAX_BULK_SIZE, bulkSize));
+    }
+
+    public void setPlayerNameStore(@Nullable final PlayerNameStore playerNameStore, final long maxAge) {
+        MojangApi.playerNameStore = playerNameStore;
+        MojangApi.playerNameMaxAge = maxAge;
+    }
+
+    private CompletableFuture<Optional<MojangUser>> loadUser(final String playerName) {
+        // Mojang rejects the whole request for one invalid name
+        if (!JavaUtilities.isValidName(playerName)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        final PlayerNameStore store = playerNameStore;
+        if (store != null) {
+            final Optional<PlayerNameStore.StoredPlayer> storedPlayer = store.get(playerName);
+            if (storedPlayer.isPresent()) {
+                if (storedPlayer.get().isStale(System.currentTimeMillis(), playerNameMaxAge)) {
+                    queueLookup(playerName).thenAccept(user -> playerCache.put(playerName, CompletableFuture.completedFuture(user)));
+                }
+                return CompletableFuture.completedFuture(Optional.of(storedPlayer.get().toMojangUser()));
+            }
+        }
+
+        return queueLookup(playerName);
+    }
+
+    private CompletableFuture<Optional<MojangUser>> queueLookup(final String playerName) {
+        synchronized (pendingLookupsLock) {
+            final CompletableFuture<Optional<MojangUser>> pendingLookup = pendingLookups.get(playerName);
+            if (pendingLookup != null) {
+                return pendingLookup;
+            }
+
+            final CompletableFuture<Optional<MojangUser>> lookup = new CompletableFuture<>();
+            pendingLookups.put(playerName, lookup);
+            if (pendingLookups.size() >= bulkSize) {
+                flushLookups();
+            } else if (pendingLookups.size() == 1) {
+                requestExecutor.schedule(MojangApi::flushLookups, BULK_DELAY, TimeUnit.MILLISECONDS);
+            }
+            return lookup;
+        }
+    }
+
+    private void flushLookups() {
+        final Map<String, CompletableFuture<Optional<MojangUser>>> lookups;
+        synchronized (pendingLookupsLock) {
+            if (pendingLookups.isEmpty()) {
+                return;
+            }
+            lookups = pendingLookups;
+            pendingLookups = new HashMap<>();
+        }
+
+        final List<String> playerNames = new ArrayList<>(lookups.keySet());
+        final int currentBulkSize = bulkSize;
+        for (int index = 0; playerNames.size() > index; index += currentBulkSize) {
+            final List<String> bulk = playerNames.subList(index, Math.min(playerNames.size(), index + currentBulkSize));
+            requestExecutor.execute(() -> requestUsers(bulk, lookups));
+        }
+    }
+
+    private void requestUsers(final List<String> playerNames,
+                              final Map<String, CompletableFuture<Optional<MojangUser>>> lookups) {
+        final MojangUser[] users;
+        try {
+            final HttpResponse<String> response = Unirest.post("https://api.mojang.com/profiles/minecraft")
+                    .header("Content-Type", "application/json")
+                    .body(gson.toJson(playerNames))
+                    .asString();
+            if (!response.isSuccess()) {
+                throw new IllegalStateException("Mojang profile request failed with status " + response.getStatus());
+            }
+            users = gson.fromJson(response.getBody(), MojangUser[].class);
+        } catch (final Exception e) {
+            DiscordBot.getLogger().error(e);
+            for (final String playerName : playerNames) {
+                lookups.get(playerName).completeExceptionally(e);
+            }
+            return;
+        }
+
+        // Names without a player are not returned
+        final Map<String, MojangUser> usersByName = new HashMap<>(users.length);
+        for (final MojangUser user : users) {
+            usersByName.put(user.getName().toLowerCase(Locale.ENGLISH), user);
+        }
+        final PlayerNameStore store = playerNameStore;
+        final long now = System.currentTimeMillis();
+        for (final String playerName : playerNames) {
+            final MojangUser user = usersByName.get(playerName);
+            if (store != null) {
+                if (user == null) {
+                    store.remove(playerName, now);
+                } else {
+                    store.put(user, now);
+                }
+            }
+            lookups.get(playerName).complete(Optional.ofNullable(user));
+        }
+    }
 
     private <T> Optional<T> parseJsonResponse(final GetRequest getRequest, final Class<T> clazz) {
         final HttpResponse<String> response;
@@ -49,7 +206,34 @@ public class MojangApi {
     }
 
     public Optional<MojangUser> getUser(final String playerName) {
-        return playerCache.get(playerName);
+        try {
+            return getUserAsync(playerName).join();
+        } catch (final CompletionException ignore) {
+            // Already logged by the request
+            return Optional.empty();
+        }
+    }
+
+    public CompletableFuture<Optional<MojangUser>> getUserAsync(@NonNull final String playerName) {
+        return playerCache.get(playerName.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Resolves all names together, with one request per bulk of uncached names.
+     *
+     * @return the players by lower case name, names without a player are missing
+     */
+    public CompletableFuture<Map<String, MojangUser>> getUsers(@NonNull final Collection<String> playerNames) {
+        final Set<String> lowerCaseNames = new HashSet<>(playerNames.size());
+        for (final String playerName : playerNames) {
+            lowerCaseNames.add(playerName.toLowerCase(Locale.ENGLISH));
+        }
+
+        return playerCache.getAll(lowerCaseNames).thenApply(users -> {
+            final Map<String, MojangUser> foundUsers = new HashMap<>(users.size());
+            users.forEach((playerName, user) -> user.ifPresent(foundUser -> foundUsers.put(playerName, foundUser)));
+            return foundUsers;
+        });
     }
 
     public Optional<NameHistory> getUserNames(final UUID uuid) {
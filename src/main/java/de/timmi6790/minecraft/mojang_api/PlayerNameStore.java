@@ -0,0 +1,230 @@
+package de.timmi6790.minecraft.mojang_api;
+
+import de.timmi6790.discord_framework.DiscordBot;
+import de.timmi6790.minecraft.mojang_api.models.MojangUser;
+import lombok.Data;
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent name to uuid mappings, kept in memory and appended to a log file.
+ * Every change is one line "name uuid changedAt verifiedAt", separated by tabs. The last line of a name wins,
+ * a "-" as uuid removes the name. The log is rewritten with only the current lines once it contains mostly old ones.
+ */
+public class PlayerNameStore {
+    private static final String SEPARATOR = "\t";
+    private static final String REMOVED_UUID = "-";
+    private static final int MIN_COMPACTION_RECORDS = 1_000;
+
+    private final Path path;
+    // Players by lower case name
+    private final Map<String, StoredPlayer> players = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+    private int logRecords;
+    // An incomplete last line would swallow the next appended one
+    private boolean incompleteRecords;
+
+    private PlayerNameStore(final Path path) {
+        this.path = path;
+    }
+
+    public static PlayerNameStore open(@NonNull final Path path) throws IOException {
+        final PlayerNameStore store = new PlayerNameStore(path);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        if (Files.exists(path)) {
+            store.load();
+            store.incompleteRecords |= !store.endsWithLineBreak();
+        }
+        if (store.incompleteRecords || store.isCompactionRequired()) {
+            store.compact();
+        } else {
+            store.openWriter();
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        try (final BufferedReader reader = Files.newBufferedReader(this.path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                this.logRecords++;
+                final String[] values = line.split(SEPARATOR);
+                if (values.length != 4) {
+                    // Incomplete line of an interrupted write
+                    this.incompleteRecords = true;
+                    continue;
+                }
+
+                try {
+                    final String name = values[0];
+                    if (REMOVED_UUID.equals(values[1])) {
+                        this.players.remove(name.toLowerCase(Locale.ENGLISH));
+                    } else {
+                        this.players.put(
+                                name.toLowerCase(Locale.ENGLISH),
+                                new StoredPlayer(name, UUID.fromString(values[1]), Long.parseLong(values[2]), Long.parseLong(values[3]))
+                        );
+                    }
+                } catch (final IllegalArgumentException ignore) {
+                    // Incomplete line of an interrupted write
+                    this.incompleteRecords = true;
+                }
+            }
+        }
+    }
+
+    private boolean endsWithLineBreak() throws IOException {
+        try (final SeekableByteChannel channel = Files.newByteChannel(this.path)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+
+            final ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) == '\n';
+        }
+    }
+
+    public Optional<StoredPlayer> get(@NonNull final String playerName) {
+        return Optional.ofNullable(this.players.get(playerName.toLowerCase(Locale.ENGLISH)));
+    }
+
+    /**
+     * Stores the user as verified now. The change time is kept while the name belongs to the same uuid.
+     */
+    public synchronized void put(@NonNull final MojangUser user, final long now) {
+        final String key = user.getName().toLowerCase(Locale.ENGLISH);
+        final StoredPlayer storedPlayer = this.players.get(key);
+        final long changedAt = storedPlayer != null && storedPlayer.getUuid().equals(user.getUuid()) ? storedPlayer.getChangedAt() : now;
+
+        final StoredPlayer player = new StoredPlayer(user.getName(), user.getUuid(), changedAt, now);
+        this.players.put(key, player);
+        this.append(player.getName(), player.getUuid().toString(), changedAt, now);
+    }
+
+    public synchronized void remove(@NonNull final String playerName, final long now) {
+        if (this.players.remove(playerName.toLowerCase(Locale.ENGLISH)) != null) {
+            this.append(playerName, REMOVED_UUID, now, now);
+        }
+    }
+
+    private void append(final String name, final String uuid, final long changedAt, final long verifiedAt) {
+        if (this.writer == null) {
+            return;
+        }
+
+        try {
+            this.writer.write(String.join(SEPARATOR, name, uuid, String.valueOf(changedAt), String.valueOf(verifiedAt)));
+            this.writer.newLine();
+            this.writer.flush();
+            this.logRecords++;
+
+            if (this.isCompactionRequired()) {
+                this.compact();
+            }
+        } catch (final IOException e) {
+            // The store is only a cache, the mapping is requested again after the next restart
+            DiscordBot.getLogger().error(e, "Failed to write to the player name store {}", this.path);
+        }
+    }
+
+    private boolean isCompactionRequired() {
+        return this.logRecords > Math.max(MIN_COMPACTION_RECORDS, this.players.size() * 2);
+    }
+
+    /**
+     * Rewrites the log with only the current lines. The old log stays in use until the compacted one is complete.
+     */
+    private void compact() throws IOException {
+        final Path compactedPath = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        try (final BufferedWriter compactedWriter = Files.newBufferedWriter(compactedPath, StandardCharsets.UTF_8)) {
+            for (final StoredPlayer player : this.players.values()) {
+                compactedWriter.write(String.join(
+                        SEPARATOR,
+                        player.getName(),
+                        player.getUuid().toString(),
+                        String.valueOf(player.getChangedAt()),
+                        String.valueOf(player.getVerifiedAt())
+                ));
+                compactedWriter.newLine();
+            }
+        } catch (final IOException e) {
+            Files.deleteIfExists(compactedPath);
+            throw e;
+        }
+
+        this.closeWriter();
+        try {
+            Files.move(compactedPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.logRecords = this.players.size();
+        } catch (final IOException e) {
+            Files.deleteIfExists(compactedPath);
+            throw e;
+        } finally {
+            // Either the compacted or the old log
+            this.openWriter();
+        }
+    }
+
+    /**
+     * Closes the log, later changes are only kept in memory.
+     */
+    public synchronized void close() {
+        try {
+            this.closeWriter();
+        } catch (final IOException e) {
+            DiscordBot.getLogger().error(e, "Failed to close the player name store {}", this.path);
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        final BufferedWriter currentWriter = this.writer;
+        this.writer = null;
+        if (currentWriter != null) {
+            currentWriter.close();
+        }
+    }
+
+    private void openWriter() throws IOException {
+        this.writer = Files.newBufferedWriter(
+                this.path,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+        );
+    }
+
+    @Data
+    public static class StoredPlayer {
+        private final String name;
+        private final UUID uuid;
+        private final long changedAt;
+        private final long verifiedAt;
+
+        public boolean isStale(final long now, final long maxAge) {
+            return now - this.verifiedAt > maxAge;
+        }
+
+        public MojangUser toMojangUser() {
+            return new MojangUser(this.name, this.uuid);
+        }
+    }
+}
@@ -2,29 +2,37 @@ package de.timmi6790.minecraft.utilities;
 
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import de.timmi6790.discord_framework.DiscordBot;
 import io.sentry.Sentry;
 import kong.unirest.HttpResponse;
 import kong.unirest.Unirest;
+import kong.unirest.UnirestException;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
 import javax.imageio.ImageIO;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 @UtilityClass
 public class JavaUtilities {
     private final Pattern NAME_PATTERN = Pattern.compile("^\\w{1,16}$");
 
-    private static final AsyncLoadingCache<UUID, BufferedImage> SKIN_CACHE = Caffeine.newBuilder()
-            .maximumSize(10_000)
+    // Weighed when the skin is loaded, the scaled variants are created later
+    private static final AsyncLoadingCache<UUID, PlayerSkin> SKIN_CACHE = Caffeine.newBuilder()
+            .maximumWeight(128L * 1024 * 1024)
+            .<UUID, PlayerSkin>weigher((uuid, skin) -> (int) Math.min(Integer.MAX_VALUE, skin.getRetainedBytes()))
             .expireAfterWrite(10, TimeUnit.MINUTES)
             .expireAfterAccess(2, TimeUnit.MINUTES)
             .buildAsync(uuid -> {
@@ -38,7 +46,8 @@ public class JavaUtilities {
                 }
 
                 try (final InputStream in = new ByteArrayInputStream(response.getBody())) {
-                    return ImageIO.read(in);
+                    final BufferedImage skin = ImageIO.read(in);
+                    return skin == null ? null : PlayerSkin.of(skin);
                 } catch (final IOException e) {
                     DiscordBot.getLogger().error(e);
                     Sentry.captureException(e);
@@ -46,12 +55,138 @@ public class JavaUtilities {
                 }
             });
 
+    public static final int HEAD_SIZE = 30;
+    // Bounds the concurrent head requests, a large leaderboard would otherwise open one connection per row
+    private static final int DEFAULT_HEAD_FETCH_THREADS = 8;
+    private static final ThreadPoolExecutor HEAD_FETCH_EXECUTOR = createHeadFetchExecutor();
+    // Failed heads are cached as empty for a short time, the renders would otherwise wait for them again until the deadline
+    private static final long HEAD_EXPIRE_TIME = TimeUnit.MINUTES.toNanos(30);
+    private static final long MISSING_HEAD_EXPIRE_TIME = TimeUnit.MINUTES.toNanos(1);
+    private static final AsyncLoadingCache<UUID, Optional<BufferedImage>> HEAD_CACHE = Caffeine.newBuilder()
+            .maximumWeight(16L * 1024 * 1024)
+            .<UUID, Optional<BufferedImage>>weigher((uuid, head) -> head.map(image -> image.getWidth() * image.getHeight() * 4).orElse(1))
+            .expireAfter(new Expiry<UUID, Optional<BufferedImage>>() {
+                @Override
+                public long expireAfterCreate(final UUID uuid, final Optional<BufferedImage> head, final long currentTime) {
+                    return head.isPresent() ? HEAD_EXPIRE_TIME : MISSING_HEAD_EXPIRE_TIME;
+                }
+
+                @Override
+                public long expireAfterUpdate(final UUID uuid,
+                                              final Optional<BufferedImage> head,
+                                              final long currentTime,
+                                              final long currentDuration) {
+                    return this.expireAfterCreate(uuid, head, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(final UUID uuid,
+                                            final Optional<BufferedImage> head,
+                                            final long currentTime,
+                                            final long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .executor(HEAD_FETCH_EXECUTOR)
+            .buildAsync(uuid -> {
+                final HttpResponse<byte[]> response;
+                try {
+                    response = Unirest.get("https://minotar.net/helm/{uuid}/{size}.png")
+                            .routeParam("uuid", uuid.toString().replace("-", ""))
+                            .routeParam("size", String.valueOf(HEAD_SIZE))
+                            .connectTimeout(5_000)
+                            .socketTimeout(5_000)
+                            .asBytes();
+                } catch (final UnirestException e) {
+                    return Optional.empty();
+                }
+
+                if (!response.isSuccess()) {
+                    return Optional.empty();
+                }
+
+                try (final InputStream in = new ByteArrayInputStream(response.getBody())) {
+                    final BufferedImage head = ImageIO.read(in);
+                    return head == null ? Optional.empty() : Optional.of(toPremultiplied(head));
+                } catch (final IOException e) {
+                    DiscordBot.getLogger().error(e);
+                    return Optional.empty();
+                }
+            });
+
+    private ThreadPoolExecutor createHeadFetchExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                DEFAULT_HEAD_FETCH_THREADS,
+                DEFAULT_HEAD_FETCH_THREADS,
+                0,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "player-head-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * Sets the number of concurrent player head requests.
+     */
+    public void setHeadFetchThreads(final int threads) {
+        final int newThreads = Math.max(1, threads);
+        // The core size may never exceed the maximum size
+        if (newThreads > HEAD_FETCH_EXECUTOR.getMaximumPoolSize()) {
+            HEAD_FETCH_EXECUTOR.setMaximumPoolSize(newThreads);
+            HEAD_FETCH_EXECUTOR.setCorePoolSize(newThreads);
+        } else {
+            HEAD_FETCH_EXECUTOR.setCorePoolSize(newThreads);
+            HEAD_FETCH_EXECUTOR.setMaximumPoolSize(newThreads);
+        }
+    }
+
+    private BufferedImage toPremultiplied(final BufferedImage image) {
+        final BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        final Graphics2D gd = converted.createGraphics();
+        gd.drawImage(image, 0, 0, null);
+        gd.dispose();
+        return converted;
+    }
 
     public boolean isValidName(@NonNull final String playerName) {
         return NAME_PATTERN.matcher(playerName).find();
     }
 
-    public CompletableFuture<BufferedImage> getPlayerSkin(@NonNull final UUID uuid) {
+    public CompletableFuture<PlayerSkin> getPlayerSkin(@NonNull final UUID uuid) {
         return SKIN_CACHE.get(uuid);
     }
+
+    /**
+     * Returns the heads in the order of the uuids. Heads of null uuids and heads that are not loaded before the deadline are null,
+     * they are still loaded into the cache in the background.
+     */
+    public BufferedImage[] getPlayerHeads(@NonNull final List<UUID> uuids, final long deadline) {
+        final List<CompletableFuture<Optional<BufferedImage>>> headFutures = new ArrayList<>(uuids.size());
+        for (final UUID uuid : uuids) {
+            // Rows without uuid get the placeholder
+            headFutures.add(uuid == null ? CompletableFuture.completedFuture(Optional.empty()) : HEAD_CACHE.get(uuid));
+        }
+
+        try {
+            CompletableFuture.allOf(headFutures.toArray(new CompletableFuture[0])).get(deadline, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException ignore) {
+            // Missing heads are drawn as placeholder
+        }
+
+        final BufferedImage[] heads = new BufferedImage[uuids.size()];
+        for (int index = 0; heads.length > index; index++) {
+            final CompletableFuture<Optional<BufferedImage>> headFuture = headFutures.get(index);
+            if (headFuture.isDone() && !headFuture.isCompletedExceptionally()) {
+                heads[index] = headFuture.join().orElse(null);
+            }
+        }
+        return heads;
+    }
 }
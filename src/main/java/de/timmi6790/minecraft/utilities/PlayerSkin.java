@@ -0,0 +1,103 @@
+package de.timmi6790.minecraft.utilities;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full body skin render, cropped to the visible pixels. Scaled variants are created once per height
+ * and kept in their own cache, bounded by bytes.
+ * All images are stored premultiplied, which is the cheapest format to blend onto our pictures.
+ */
+public class PlayerSkin {
+    // Scaled variants by skin and height. Skins are compared by identity
+    private static final Cache<ScaledImageKey, BufferedImage> SCALED_IMAGE_CACHE = Caffeine.newBuilder()
+            .maximumWeight(64L * 1024 * 1024)
+            .<ScaledImageKey, BufferedImage>weigher((key, image) -> image.getWidth() * image.getHeight() * 4)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    @Getter
+    private final BufferedImage image;
+
+    private PlayerSkin(final BufferedImage image) {
+        this.image = image;
+    }
+
+    public static PlayerSkin of(@NonNull final BufferedImage skin) {
+        // Bounds of the visible pixels
+        int minX = skin.getWidth();
+        int minY = skin.getHeight();
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; skin.getHeight() > y; y++) {
+            for (int x = 0; skin.getWidth() > x; x++) {
+                if ((skin.getRGB(x, y) >>> 24) != 0) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+
+        if (maxX == -1) {
+            return new PlayerSkin(copy(skin, 0, 0, skin.getWidth(), skin.getHeight(), skin.getWidth(), skin.getHeight()));
+        }
+        return new PlayerSkin(copy(skin, minX, minY, maxX - minX + 1, maxY - minY + 1, maxX - minX + 1, maxY - minY + 1));
+    }
+
+    private static BufferedImage copy(final BufferedImage source,
+                                      final int x,
+                                      final int y,
+                                      final int width,
+                                      final int height,
+                                      final int targetWidth,
+                                      final int targetHeight) {
+        final BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        final Graphics2D gd = target.createGraphics();
+        gd.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        gd.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        gd.drawImage(source, 0, 0, targetWidth, targetHeight, x, y, x + width, y + height, null);
+        gd.dispose();
+        return target;
+    }
+
+    /**
+     * Returns the skin scaled down to the height, it is never scaled up.
+     */
+    public BufferedImage getImage(final int maxHeight) {
+        if (maxHeight >= this.image.getHeight() || maxHeight <= 0) {
+            return this.image;
+        }
+
+        return SCALED_IMAGE_CACHE.get(new ScaledImageKey(this, maxHeight), key -> copy(
+                this.image,
+                0,
+                0,
+                this.image.getWidth(),
+                this.image.getHeight(),
+                Math.max(1, (int) Math.round((double) this.image.getWidth() * maxHeight / this.image.getHeight())),
+                maxHeight
+        ));
+    }
+
+    /**
+     * Size of the full size image, in bytes. The scaled variants are weighed by their own cache.
+     */
+    public long getRetainedBytes() {
+        return (long) this.image.getWidth() * this.image.getHeight() * 4;
+    }
+
+    @Data
+    private static class ScaledImageKey {
+        private final PlayerSkin skin;
+        private final int height;
+    }
+}
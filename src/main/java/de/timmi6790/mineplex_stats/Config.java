@@ -9,10 +9,25 @@ public class Config {
     private String apiUrl = "https://mpstats.timmi6790.de/";
     private int apiTimeout = 6_000;
     private final NotificationChannel notificationChannel = new NotificationChannel();
+    private final Picture picture = new Picture();
 
     @Data
     public static class NotificationChannel {
         private long filterChannel = 0;
         private long aliasNameChannel = 0;
     }
+
+    @Data
+    public static class Picture {
+        private boolean glyphAtlas = true;
+        private int renderQueueSize = 32;
+        private long renderTimeout = 30_000;
+        // Threads for the parallel parts of one picture, half of the cores if not positive
+        private int renderWorkerThreads = 0;
+        // Time to wait for optional parts like skins, before the picture is sent without them
+        private long progressiveDeadline = 750;
+        // Time to wait for the player heads of a leaderboard, missing heads are drawn as placeholder
+        private long playerHeadDeadline = 500;
+        private int playerHeadThreads = 8;
+    }
 }
@@ -8,13 +8,16 @@ import de.timmi6790.discord_framework.modules.config.ConfigModule;
 import de.timmi6790.discord_framework.modules.setting.SettingModule;
 import de.timmi6790.discord_framework.utilities.discord.DiscordMessagesUtilities;
 import de.timmi6790.minecraft.MinecraftModule;
+import de.timmi6790.minecraft.utilities.JavaUtilities;
 import de.timmi6790.mineplex_stats.commands.bedrock.BedrockLeaderboardCommand;
 import de.timmi6790.mineplex_stats.commands.bedrock.BedrockPlayerCommand;
 import de.timmi6790.mineplex_stats.commands.bedrock.info.BedrockGamesCommand;
 import de.timmi6790.mineplex_stats.commands.bedrock.management.BedrockFilterLeaderboardCommand;
 import de.timmi6790.mineplex_stats.commands.bedrock.management.BedrockPlayerFilterCommand;
 import de.timmi6790.mineplex_stats.commands.debug.ReloadDataCommand;
+import de.timmi6790.mineplex_stats.commands.debug.RenderStatisticsCommand;
 import de.timmi6790.mineplex_stats.commands.info.AboutCommand;
+import de.timmi6790.mineplex_stats.commands.java.JavaBigLeaderboardCommand;
 import de.timmi6790.mineplex_stats.commands.java.JavaLeaderboardCommand;
 import de.timmi6790.mineplex_stats.commands.java.info.JavaGamesCommand;
 import de.timmi6790.mineplex_stats.commands.java.info.JavaGroupsGroupsCommand;
@@ -24,6 +27,9 @@ import de.timmi6790.mineplex_stats.commands.java.player.JavaPlayerStatsCommand;
 import de.timmi6790.mineplex_stats.commands.java.player.JavaPlayerStatsRatioCommand;
 import de.timmi6790.mineplex_stats.commands.java.unfiltered.JavaUnfilteredLeaderboardCommand;
 import de.timmi6790.mineplex_stats.commands.java.unfiltered.JavaUnfilteredPlayerStatsCommand;
+import de.timmi6790.mineplex_stats.picture.GlyphAtlas;
+import de.timmi6790.mineplex_stats.picture.PictureFonts;
+import de.timmi6790.mineplex_stats.picture.RenderExecutor;
 import de.timmi6790.mineplex_stats.settings.BedrockNameReplacementSetting;
 import de.timmi6790.mineplex_stats.settings.DisclaimerMessagesSetting;
 import de.timmi6790.mineplex_stats.settings.JavaNameReplacementSetting;
@@ -31,10 +37,7 @@ import de.timmi6790.mineplex_stats.statsapi.MpStatsRestApiClient;
 import de.timmi6790.mineplex_stats.statsapi.models.ResponseModel;
 import de.timmi6790.mineplex_stats.statsapi.models.bedrock.BedrockGame;
 import de.timmi6790.mineplex_stats.statsapi.models.bedrock.BedrockGames;
-import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGame;
-import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGamesModel;
-import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGroup;
-import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGroupsGroups;
+import de.timmi6790.mineplex_stats.statsapi.models.java.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import net.dv8tion.jda.api.entities.TextChannel;
@@ -43,6 +46,7 @@ import org.apache.commons.collections4.map.CaseInsensitiveMap;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @EqualsAndHashCode(callSuper = true)
 public class MineplexStatsModule extends AbstractModule {
@@ -51,9 +55,14 @@ public class MineplexStatsModule extends AbstractModule {
     private final Map<String, JavaGroup> javaGroups = new CaseInsensitiveMap<>();
     private final Map<String, String> javaGroupsAlias = new CaseInsensitiveMap<>();
     private final Map<String, BedrockGame> bedrockGames = new CaseInsensitiveMap<>();
+    // Increased after every change to the loaded games, groups or bedrock games
+    private final AtomicLong metadataVersion = new AtomicLong();
 
     @Getter
     private MpStatsRestApiClient mpStatsRestClient;
+    @Getter
+    private RenderExecutor renderExecutor;
+    @Getter
     private Config statsConfig;
 
     public MineplexStatsModule() {
@@ -78,6 +87,14 @@ public class MineplexStatsModule extends AbstractModule {
                 this.statsConfig.getApiUrl(),
                 this.statsConfig.getApiTimeout()
         );
+        GlyphAtlas.setEnabled(this.statsConfig.getPicture().isGlyphAtlas());
+        PictureFonts.warmUp();
+        this.renderExecutor = new RenderExecutor(
+                this.statsConfig.getPicture().getRenderQueueSize(),
+                this.statsConfig.getPicture().getRenderTimeout(),
+                this.statsConfig.getPicture().getRenderWorkerThreads()
+        );
+        JavaUtilities.setHeadFetchThreads(this.statsConfig.getPicture().getPlayerHeadThreads());
 
         // I should maybe handle the api downtime better
         this.loadJavaGames();
@@ -99,6 +116,7 @@ public class MineplexStatsModule extends AbstractModule {
                 new JavaPlayerGroupCommand(),
                 new JavaGroupsGroupsCommand(),
                 new JavaLeaderboardCommand(),
+                new JavaBigLeaderboardCommand(),
                 new JavaPlayerStatsRatioCommand(),
 
                 new BedrockGamesCommand(),
@@ -106,6 +124,7 @@ public class MineplexStatsModule extends AbstractModule {
                 new BedrockLeaderboardCommand(),
 
                 new ReloadDataCommand(),
+                new RenderStatisticsCommand(),
 
                 new JavaUUUIDLeaderboardCommand(),
                 new JavaPlayerFilterCommand(),
@@ -123,6 +142,14 @@ public class MineplexStatsModule extends AbstractModule {
         );
     }
 
+    @Override
+    public void onDisable() {
+        // Commands that still run get busy responses from the stopped executor
+        if (this.renderExecutor != null) {
+            this.renderExecutor.shutdown();
+        }
+    }
+
     public void loadJavaGames() {
         final ResponseModel responseModel = this.mpStatsRestClient.getJavaGames();
         if (!(responseModel instanceof JavaGamesModel)) {
@@ -142,6 +169,7 @@ public class MineplexStatsModule extends AbstractModule {
                 }
             }
         }
+        this.metadataVersion.incrementAndGet();
     }
 
     public void loadJavaGroups() {
@@ -166,6 +194,7 @@ public class MineplexStatsModule extends AbstractModule {
                 }
             }
         }
+        this.metadataVersion.incrementAndGet();
     }
 
     public void loadBedrockGames() {
@@ -180,9 +209,78 @@ public class MineplexStatsModule extends AbstractModule {
                 this.bedrockGames.put(game.getName(), game);
             }
         }
+        this.metadataVersion.incrementAndGet();
+    }
+
+    // Incremental changes
+    // Only the changed nodes are copied and replaced, all unaffected games, stats and boards are shared with the old state
+    public void addJavaGameAlias(final String gameName, final String aliasName) {
+        synchronized (this.javaGames) {
+            synchronized (this.javaGamesAlias) {
+                final JavaGame game = this.javaGames.get(gameName);
+                if (game == null) {
+                    return;
+                }
+
+                this.javaGames.put(game.getName(), game.withAliasName(aliasName));
+                this.javaGamesAlias.put(aliasName, game.getName());
+            }
+        }
+        this.metadataVersion.incrementAndGet();
+    }
+
+    public void addJavaStatAlias(final String gameName, final String statName, final String aliasName) {
+        synchronized (this.javaGames) {
+            final JavaGame game = this.javaGames.get(gameName);
+            if (game == null) {
+                return;
+            }
+
+            final Optional<JavaStat> statOpt = game.getStat(statName);
+            if (!statOpt.isPresent()) {
+                return;
+            }
+
+            this.javaGames.put(game.getName(), game.withStat(statOpt.get().withAliasName(aliasName)));
+        }
+        this.resetJavaGroupStats();
+        this.metadataVersion.incrementAndGet();
+    }
+
+    public void addJavaBoardAlias(final String boardName, final String aliasName) {
+        synchronized (this.javaGames) {
+            for (final JavaGame game : new ArrayList<>(this.javaGames.values())) {
+                final List<JavaStat> changedStats = new ArrayList<>();
+                for (final JavaStat stat : game.getStats().values()) {
+                    final JavaBoard board = stat.getBoards().get(boardName);
+                    if (board != null) {
+                        changedStats.add(stat.withBoard(board.withAliasName(aliasName)));
+                    }
+                }
+
+                if (!changedStats.isEmpty()) {
+                    this.javaGames.put(game.getName(), game.withStats(changedStats));
+                }
+            }
+        }
+        this.resetJavaGroupStats();
+        this.metadataVersion.incrementAndGet();
+    }
+
+    private void resetJavaGroupStats() {
+        // Groups cache their stats from the games. They are replaced like the games, commands could still use the old ones
+        synchronized (this.javaGroups) {
+            for (final JavaGroup javaGroup : new ArrayList<>(this.javaGroups.values())) {
+                this.javaGroups.put(javaGroup.getName(), javaGroup.withoutGroupStats());
+            }
+        }
     }
 
     // Data
+    public long getMetadataVersion() {
+        return this.metadataVersion.get();
+    }
+
     public Optional<JavaGame> getJavaGame(String name) {
         name = this.javaGamesAlias.getOrDefault(name, name);
         return Optional.ofNullable(this.javaGames.get(name));
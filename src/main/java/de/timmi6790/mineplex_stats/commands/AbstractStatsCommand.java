@@ -1,5 +1,8 @@
 package de.timmi6790.mineplex_stats.commands;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.timmi6790.discord_framework.DiscordBot;
 import de.timmi6790.discord_framework.modules.command.AbstractCommand;
 import de.timmi6790.discord_framework.modules.command.CommandParameters;
 import de.timmi6790.discord_framework.modules.command.CommandResult;
@@ -11,23 +14,34 @@ import de.timmi6790.discord_framework.modules.emote_reaction.emotereactions.Comm
 import de.timmi6790.discord_framework.utilities.DataUtilities;
 import de.timmi6790.discord_framework.utilities.discord.DiscordEmotes;
 import de.timmi6790.mineplex_stats.MineplexStatsModule;
+import de.timmi6790.mineplex_stats.picture.AbstractPicture;
+import de.timmi6790.mineplex_stats.picture.EncodedPicture;
+import de.timmi6790.mineplex_stats.picture.RenderBusyException;
 import de.timmi6790.mineplex_stats.statsapi.models.ResponseModel;
 import de.timmi6790.mineplex_stats.statsapi.models.errors.ErrorModel;
+import de.timmi6790.mineplex_stats.utilities.DateArgumentParser;
+import de.timmi6790.mineplex_stats.utilities.SnapshotCache;
+import de.timmi6790.mineplex_stats.utilities.StatsFormatter;
+import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
 import net.dv8tion.jda.api.utils.MarkdownUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
-import org.ocpsoft.prettytime.nlp.PrettyTimeParser;
 
-import java.io.InputStream;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -37,19 +51,16 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
     protected static final String UNKNOWN_POSITION = ">1000";
     protected static final String UNKNOWN_SCORE = "Unknown";
 
-    private static final DecimalFormat FORMAT_NUMBER = (DecimalFormat) NumberFormat.getInstance(Locale.US);
+    private static final SnapshotCache<ArgumentKey, ResolvedArgument<?>> ARGUMENT_CACHE = new SnapshotCache<>(10_000);
 
-    private static final DecimalFormat FORMAT_DECIMAL_POINT = new DecimalFormat(".##");
-
-    static {
-        final DecimalFormatSymbols dateSymbol = FORMAT_DECIMAL_POINT.getDecimalFormatSymbols();
-        dateSymbol.setDecimalSeparator('.');
-        FORMAT_DECIMAL_POINT.setDecimalFormatSymbols(dateSymbol);
-
-        final DecimalFormatSymbols numberSymbol = FORMAT_NUMBER.getDecimalFormatSymbols();
-        numberSymbol.setGroupingSeparator(',');
-        FORMAT_NUMBER.setDecimalFormatSymbols(numberSymbol);
-    }
+    // Uploaded pictures by content hash. Discord attachment links expire after about a day,
+    // the entries expire well before that
+    private static final Cache<String, UploadedPicture> UPLOADED_PICTURES = Caffeine.newBuilder()
+            .maximumSize(5_000)
+            .expireAfterWrite(12, TimeUnit.HOURS)
+            .build();
+    // Discord limit
+    private static final int MAX_ATTACHMENTS_PER_MESSAGE = 10;
 
     private final MineplexStatsModule mineplexStatsModule;
     private final EmoteReactionModule emoteReactionModule;
@@ -67,6 +78,7 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
 
     protected <T> T getArgumentDefaultOrThrow(final CommandParameters commandParameters,
                                               final String argName,
+                                              final String scope,
                                               final int argPos,
                                               final String defaultUserInput,
                                               final Function<String, Optional<T>> firstValueFunction,
@@ -78,6 +90,7 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
                 commandParameters,
                 this.getArgOrDefault(commandParameters, argPos, defaultUserInput),
                 argName,
+                scope,
                 argPos,
                 firstValueFunction,
                 toString,
@@ -89,6 +102,7 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
 
     protected <T> T getArgumentOrThrow(final CommandParameters commandParameters,
                                        final String argName,
+                                       final String scope,
                                        final int argPos,
                                        final Function<String, Optional<T>> firstValueFunction,
                                        final Function<T, String> toString,
@@ -99,6 +113,7 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
                 commandParameters,
                 this.getArg(commandParameters, argPos),
                 argName,
+                scope,
                 argPos,
                 firstValueFunction,
                 toString,
@@ -108,21 +123,34 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
         );
     }
 
+    /**
+     * @param scope the scope the argument is resolved in, all resolutions with the same scope share their cached results
+     */
     protected <T> T getArgumentOrThrow(final CommandParameters commandParameters,
                                        final String userInput,
                                        final String argName,
+                                       final String scope,
                                        final int argPos,
                                        final Function<String, Optional<T>> firstValueFunction,
                                        final Function<T, String> toString,
                                        final Supplier<Collection<T>> allValues,
                                        final Supplier<String[]> newArgsSupplier,
                                        final Class<? extends AbstractCommand> helpCommandClass) {
-        final Optional<T> valueOpt = firstValueFunction.apply(userInput);
-        if (valueOpt.isPresent()) {
-            return valueOpt.get();
+        final ResolvedArgument<T> resolvedArgument = this.resolveArgument(
+                helpCommandClass.getSimpleName() + ":" + argName,
+                scope,
+                userInput,
+                () -> {
+                    final Optional<T> valueOpt = firstValueFunction.apply(userInput);
+                    return valueOpt.map(ResolvedArgument::of)
+                            .orElseGet(() -> ResolvedArgument.ofSimilar(this.getSimilarityList(userInput, allValues.get(), toString)));
+                }
+        );
+        if (resolvedArgument.getValue().isPresent()) {
+            return resolvedArgument.getValue().get();
         }
 
-        final List<T> similarValues = this.getSimilarityList(userInput, allValues.get(), toString);
+        final List<T> similarValues = resolvedArgument.getSimilarValues();
         if (!similarValues.isEmpty() && commandParameters.getUserDb().hasAutoCorrection()) {
             return similarValues.get(0);
         }
@@ -140,6 +168,28 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
         throw new CommandReturnException();
     }
 
+    /**
+     * Returns the cached resolution of the user input or resolves it with the given resolver.
+     * Results are only reused for the same metadata version.
+     *
+     * @param kind      the kind of the argument, e.g. game or stat
+     * @param scope     the scope the argument is resolved in, e.g. the game of a stat
+     * @param userInput the raw user input
+     * @param resolver  the resolver used on a cache miss
+     * @return the resolved argument
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> ResolvedArgument<T> resolveArgument(final String kind,
+                                                      final String scope,
+                                                      final String userInput,
+                                                      final Supplier<ResolvedArgument<T>> resolver) {
+        return (ResolvedArgument<T>) ARGUMENT_CACHE.get(
+                this.mineplexStatsModule.getMetadataVersion(),
+                new ArgumentKey(kind, scope, userInput),
+                key -> resolver.get()
+        );
+    }
+
     private boolean isInt(final String userInput) {
         try {
             Integer.parseInt(userInput);
@@ -167,52 +217,16 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
         return DataUtilities.getSimilarityList(source, values, toString, 0.6, 3);
     }
 
-    protected String getFormattedTime(long time) {
-        final long days = TimeUnit.SECONDS.toDays(time);
-        time -= TimeUnit.DAYS.toSeconds(days);
-
-        final long hours = TimeUnit.SECONDS.toHours(time);
-        time -= TimeUnit.HOURS.toSeconds(hours);
-
-        if (days != 0) {
-            if (hours == 0) {
-                return days + (days > 1 ? " days" : " day");
-            }
-
-            return days + FORMAT_DECIMAL_POINT.format(hours / 24D) + " days";
-        }
-
-        final long minutes = TimeUnit.SECONDS.toMinutes(time);
-        time -= TimeUnit.MINUTES.toSeconds(minutes);
-        if (hours != 0) {
-            if (minutes == 0) {
-                return hours + (hours > 1 ? " hours" : " hour");
-            }
-
-            return hours + FORMAT_DECIMAL_POINT.format(minutes / 60D) + " hours";
-        }
-
-        final long seconds = TimeUnit.SECONDS.toSeconds(time);
-        if (minutes != 0) {
-            if (seconds == 0) {
-                return minutes + (minutes > 1 ? " minutes" : " minute");
-            }
-
-            return minutes + FORMAT_DECIMAL_POINT.format(seconds / 60D) + " minutes";
-        }
-
-        return seconds + (seconds > 1 ? " seconds" : " second");
+    protected String getFormattedTime(final long time) {
+        return StatsFormatter.formatTime(time);
     }
 
     public String getFormattedNumber(final long number) {
-        return FORMAT_NUMBER.format(number);
+        return StatsFormatter.formatNumber(number);
     }
 
     protected String getFormattedUnixTime(final long unix) {
-        final SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy HH:mm:ss z");
-        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-        return dateFormat.format(Date.from(Instant.ofEpochSecond(unix)));
+        return StatsFormatter.formatUnixTime(unix);
     }
 
     public void checkApiResponseThrow(final CommandParameters commandParameters,
@@ -295,12 +309,11 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
 
         final String[] dateArgs = new String[commandParameters.getArgs().length - startArgPos];
         System.arraycopy(commandParameters.getArgs(), startArgPos, dateArgs, 0, dateArgs.length);
-        final String name = String.join(" ", dateArgs).replace(".", "/");
+        final String name = String.join(" ", dateArgs);
 
-        // TODO: Better date parsing :/
-        final List<Date> dates = new PrettyTimeParser().parse(name);
-        if (!dates.isEmpty()) {
-            return TimeUnit.MILLISECONDS.toSeconds(dates.get(0).getTime());
+        final Optional<Long> unixTime = DateArgumentParser.parseUnixTime(name);
+        if (unixTime.isPresent()) {
+            return unixTime.get();
         }
 
         throw new CommandReturnException(
@@ -438,27 +451,249 @@ public abstract class AbstractStatsCommand extends AbstractCommand {
     }
 
     protected CommandResult sendPicture(final CommandParameters commandParameters,
-                                        @Nullable final InputStream inputStream,
+                                        final AbstractPicture picture,
                                         final String pictureName) {
-        return this.sendPicture(commandParameters, inputStream, pictureName, null);
+        return this.sendPicture(commandParameters, picture, pictureName, null);
     }
 
     protected CommandResult sendPicture(final CommandParameters commandParameters,
-                                        @Nullable final InputStream inputStream,
+                                        final AbstractPicture picture,
                                         final String pictureName,
                                         final @Nullable EmoteReactionMessage emoteReactionMessage) {
-        if (inputStream != null) {
-            commandParameters.getLowestMessageChannel()
-                    .sendFile(inputStream, pictureName + ".png")
-                    .queue(message -> {
-                        if (emoteReactionMessage != null) {
-                            this.emoteReactionModule.addEmoteReactionMessage(message, emoteReactionMessage);
-                        }
-                    });
-            return CommandResult.SUCCESS;
-        } else {
+        return this.renderAndSendPicture(
+                commandParameters,
+                picture,
+                pictureName,
+                message -> this.addEmoteReactionMessage(message, emoteReactionMessage)
+        );
+    }
+
+    /**
+     * Sends the picture created with the optional value, like a skin. If the value is not available before the deadline,
+     * the picture without it is sent first and replaced by the complete picture once the value arrives.
+     *
+     * @param pictureFunction creates the picture, the value is null if it is not available
+     */
+    protected <T> CommandResult sendPictureProgressively(final CommandParameters commandParameters,
+                                                         final CompletableFuture<T> valueFuture,
+                                                         final Function<T, AbstractPicture> pictureFunction,
+                                                         final String pictureName) {
+        T value = null;
+        try {
+            value = valueFuture.get(this.mineplexStatsModule.getStatsConfig().getPicture().getProgressiveDeadline(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            final CompletableFuture<Message> firstMessage = new CompletableFuture<>();
+            final CommandResult commandResult = this.renderAndSendPicture(
+                    commandParameters,
+                    pictureFunction.apply(null),
+                    pictureName,
+                    firstMessage::complete
+            );
+            if (commandResult == CommandResult.SUCCESS) {
+                // A failed value is ignored, the user already has the picture without it
+                valueFuture.whenComplete((lateValue, throwable) -> {
+                    if (lateValue == null) {
+                        return;
+                    }
+
+                    try {
+                        this.replacePicture(commandParameters, pictureFunction.apply(lateValue), pictureName, firstMessage);
+                    } catch (final RuntimeException e) {
+                        DiscordBot.getLogger().error(e, "Failed to replace the picture {}", pictureName);
+                    }
+                });
+            }
+            return commandResult;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException ignore) {
+            // Send it without the value
+        }
+
+        return this.sendPicture(commandParameters, pictureFunction.apply(value), pictureName);
+    }
+
+    private CommandResult renderAndSendPicture(final CommandParameters commandParameters,
+                                               final AbstractPicture picture,
+                                               final String pictureName,
+                                               final Consumer<Message> sentMessageConsumer) {
+        final List<EncodedPicture> encodedPictures;
+        try {
+            encodedPictures = this.mineplexStatsModule.getRenderExecutor().render(picture);
+        } catch (final RenderBusyException e) {
+            this.sendTimedMessage(
+                    commandParameters,
+                    this.getEmbedBuilder(commandParameters)
+                            .setTitle("Busy")
+                            .setDescription("Too many pictures are created right now, please try it again in a few seconds."),
+                    90
+            );
+            return CommandResult.ERROR;
+        }
+
+        if (encodedPictures.size() == 1) {
+            return this.sendEncodedPicture(commandParameters, encodedPictures.get(0), pictureName, sentMessageConsumer);
+        }
+
+        if (encodedPictures.isEmpty() || encodedPictures.contains(null)) {
+            this.sendErrorMessage(commandParameters, "Error while creating picture.");
+            return CommandResult.ERROR;
+        }
+        this.uploadPictures(commandParameters, encodedPictures, pictureName, sentMessageConsumer);
+        return CommandResult.SUCCESS;
+    }
+
+    private void replacePicture(final CommandParameters commandParameters,
+                                final AbstractPicture picture,
+                                final String pictureName,
+                                final CompletableFuture<Message> replacedMessage) {
+        // Rendered without blocking the thread that loaded the value.
+        // The user already has a picture, the replacement is only sent if it is created without problems
+        this.mineplexStatsModule.getRenderExecutor().renderAsync(picture)
+                .thenAccept(encodedPictures -> {
+                    if (encodedPictures.size() == 1 && encodedPictures.get(0) != null) {
+                        this.sendEncodedPicture(
+                                commandParameters,
+                                encodedPictures.get(0),
+                                pictureName,
+                                message -> replacedMessage.thenAccept(this::deletePicture)
+                        );
+                    }
+                })
+                .exceptionally(throwable -> {
+                    final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    if (!(cause instanceof RenderBusyException)) {
+                        DiscordBot.getLogger().error(cause, "Failed to replace the picture {}", pictureName);
+                    }
+                    return null;
+                });
+    }
+
+    private void deletePicture(final Message message) {
+        // The attachment of the message is gone, later pictures with the same content are uploaded again
+        UPLOADED_PICTURES.asMap().values().removeIf(uploadedPicture -> uploadedPicture.getMessageId() == message.getIdLong());
+        message.delete().queue();
+    }
+
+    private CommandResult sendEncodedPicture(final CommandParameters commandParameters,
+                                             @Nullable final EncodedPicture picture,
+                                             final String pictureName,
+                                             final Consumer<Message> sentMessageConsumer) {
+        if (picture == null) {
             this.sendErrorMessage(commandParameters, "Error while creating picture.");
             return CommandResult.ERROR;
         }
+
+        // Reuse the attachment of an earlier upload with the same content
+        final UploadedPicture uploadedPicture = UPLOADED_PICTURES.getIfPresent(picture.getContentHash());
+        final MessageChannel uploadChannel = uploadedPicture == null ? null : this.getUploadChannel(commandParameters, uploadedPicture);
+        if (uploadChannel == null) {
+            UPLOADED_PICTURES.invalidate(picture.getContentHash());
+            this.uploadPicture(commandParameters, picture, pictureName, sentMessageConsumer);
+            return CommandResult.SUCCESS;
+        }
+
+        // Discord accepts embeds of deleted attachments, the attachment is only available while its message exists
+        uploadChannel.retrieveMessageById(uploadedPicture.getMessageId()).queue(
+                uploadMessage -> commandParameters.getLowestMessageChannel()
+                        .sendMessage(new EmbedBuilder().setImage(uploadedPicture.getUrl()).build())
+                        .queue(
+                                sentMessageConsumer,
+                                failure -> this.uploadPicture(commandParameters, picture, pictureName, sentMessageConsumer)
+                        ),
+                failure -> {
+                    UPLOADED_PICTURES.invalidate(picture.getContentHash());
+                    this.uploadPicture(commandParameters, picture, pictureName, sentMessageConsumer);
+                }
+        );
+        return CommandResult.SUCCESS;
+    }
+
+    @Nullable
+    private MessageChannel getUploadChannel(final CommandParameters commandParameters, final UploadedPicture uploadedPicture) {
+        final JDA jda = commandParameters.getLowestMessageChannel().getJDA();
+        final MessageChannel textChannel = jda.getTextChannelById(uploadedPicture.getChannelId());
+        if (textChannel != null) {
+            return textChannel;
+        }
+        return jda.getPrivateChannelById(uploadedPicture.getChannelId());
+    }
+
+    private void uploadPicture(final CommandParameters commandParameters,
+                               final EncodedPicture picture,
+                               final String pictureName,
+                               final Consumer<Message> sentMessageConsumer) {
+        commandParameters.getLowestMessageChannel()
+                .sendFile(picture.getData(), pictureName + ".png")
+                .queue(message -> {
+                    if (!message.getAttachments().isEmpty()) {
+                        UPLOADED_PICTURES.put(
+                                picture.getContentHash(),
+                                new UploadedPicture(message.getAttachments().get(0).getUrl(), message.getChannel().getIdLong(), message.getIdLong())
+                        );
+                    }
+                    sentMessageConsumer.accept(message);
+                });
+    }
+
+    /**
+     * Uploads the parts of a split picture in order, as few messages as possible. The last message is passed to the consumer.
+     */
+    private void uploadPictures(final CommandParameters commandParameters,
+                                final List<EncodedPicture> pictures,
+                                final String pictureName,
+                                final Consumer<Message> sentMessageConsumer) {
+        for (int fromIndex = 0; pictures.size() > fromIndex; fromIndex += MAX_ATTACHMENTS_PER_MESSAGE) {
+            final int toIndex = Math.min(pictures.size(), fromIndex + MAX_ATTACHMENTS_PER_MESSAGE);
+            MessageAction messageAction = commandParameters.getLowestMessageChannel()
+                    .sendFile(pictures.get(fromIndex).getData(), pictureName + "-" + (fromIndex + 1) + ".png");
+            for (int index = fromIndex + 1; toIndex > index; index++) {
+                messageAction = messageAction.addFile(pictures.get(index).getData(), pictureName + "-" + (index + 1) + ".png");
+            }
+
+            if (toIndex == pictures.size()) {
+                messageAction.queue(sentMessageConsumer);
+            } else {
+                messageAction.queue();
+            }
+        }
+    }
+
+    private void addEmoteReactionMessage(final Message message, final @Nullable EmoteReactionMessage emoteReactionMessage) {
+        if (emoteReactionMessage != null) {
+            this.emoteReactionModule.addEmoteReactionMessage(message, emoteReactionMessage);
+        }
+    }
+
+    @Data
+    private static class UploadedPicture {
+        private final String url;
+        private final long channelId;
+        private final long messageId;
+    }
+
+    @Data
+    private static class ArgumentKey {
+        private final String kind;
+        private final String scope;
+        private final String userInput;
+    }
+
+    @Data
+    protected static class ResolvedArgument<T> {
+        private final T value;
+        private final List<T> similarValues;
+
+        public static <T> ResolvedArgument<T> of(final T value) {
+            return new ResolvedArgument<>(value, Collections.emptyList());
+        }
+
+        public static <T> ResolvedArgument<T> ofSimilar(final List<T> similarValues) {
+            return new ResolvedArgument<>(null, Collections.unmodifiableList(similarValues));
+        }
+
+        public Optional<T> getValue() {
+            return Optional.ofNullable(this.value);
+        }
     }
 }
@@ -95,7 +95,7 @@ public abstract class AbstractBedrockLeaderboardCommand extends AbstractBedrockS
                         header,
                         this.getFormattedUnixTime(leaderboardInfo.getUnix()),
                         leaderboard
-                ).getPlayerPicture(),
+                ),
                 String.format(
                         "%s-%s",
                         String.join("-", header),
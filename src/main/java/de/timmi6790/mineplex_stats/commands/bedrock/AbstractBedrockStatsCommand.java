@@ -24,6 +24,7 @@ public abstract class AbstractBedrockStatsCommand extends AbstractStatsCommand {
         return this.getArgumentOrThrow(
                 commandParameters,
                 "game",
+                "",
                 argPos,
                 gameName -> this.getMineplexStatsModule().getBedrockGame(gameName),
                 BedrockGame::getName,
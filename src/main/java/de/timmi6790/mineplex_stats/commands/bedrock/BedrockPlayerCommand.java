@@ -69,7 +69,7 @@ public class BedrockPlayerCommand extends AbstractBedrockStatsCommand {
                         header,
                         this.getFormattedUnixTime(highestUnixTime.get()),
                         leaderboard.toArray(new String[0][3])
-                ).getPlayerPicture(),
+                ),
                 String.join("-", header) + "-" + highestUnixTime
         );
     }
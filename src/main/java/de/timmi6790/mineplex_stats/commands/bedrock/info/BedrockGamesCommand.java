@@ -5,40 +5,47 @@ import de.timmi6790.discord_framework.modules.command.CommandResult;
 import de.timmi6790.discord_framework.utilities.MultiEmbedBuilder;
 import de.timmi6790.mineplex_stats.commands.bedrock.AbstractBedrockStatsCommand;
 import de.timmi6790.mineplex_stats.statsapi.models.bedrock.BedrockGame;
+import de.timmi6790.mineplex_stats.utilities.SnapshotCache;
 import org.apache.commons.collections4.list.TreeList;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.*;
+import java.util.function.Consumer;
 
 public class BedrockGamesCommand extends AbstractBedrockStatsCommand {
+    // Embed fields, built once per metadata version
+    private final SnapshotCache<String, Consumer<MultiEmbedBuilder>> embedFieldsCache = new SnapshotCache<>(10);
+
     public BedrockGamesCommand() {
         super("bgames", "Bedrock games", "", "bg");
     }
 
-    @Override
-    protected CommandResult onCommand(final CommandParameters commandParameters) {
-        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
-                .setTitle("Bedrock Games");
-
-
+    private Consumer<MultiEmbedBuilder> buildGamesFields() {
         final Map<String, List<String>> sortedGames = new TreeMap<>();
         for (final BedrockGame game : this.getMineplexStatsModule().getBedrockGames()) {
             final String key = game.isRemoved() ? "Removed" : "Games";
             sortedGames.computeIfAbsent(key, k -> new TreeList<>()).add(game.getName());
         }
 
+        final Map<String, String> fields = new LinkedHashMap<>();
         for (final Map.Entry<String, List<String>> entry : sortedGames.entrySet()) {
             final List<String> gameNames = entry.getValue();
             gameNames.sort(Comparator.naturalOrder());
-            message.addField(
-                    entry.getKey(),
-                    String.join("\n", gameNames),
-                    false
-            );
+            fields.put(entry.getKey(), String.join("\n", gameNames));
         }
 
+        return message -> fields.forEach((name, value) -> message.addField(name, value, false));
+    }
+
+    @Override
+    protected CommandResult onCommand(final CommandParameters commandParameters) {
+        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
+                .setTitle("Bedrock Games");
+        this.embedFieldsCache.get(
+                this.getMineplexStatsModule().getMetadataVersion(),
+                "",
+                key -> this.buildGamesFields()
+        ).accept(message);
+
         this.sendTimedMessage(commandParameters, message, 150);
         return CommandResult.SUCCESS;
     }
@@ -0,0 +1,33 @@
+package de.timmi6790.mineplex_stats.commands.debug;
+
+import de.timmi6790.discord_framework.modules.command.CommandParameters;
+import de.timmi6790.discord_framework.modules.command.CommandResult;
+import de.timmi6790.mineplex_stats.commands.AbstractStatsCommand;
+import de.timmi6790.mineplex_stats.picture.RenderExecutor;
+
+public class RenderStatisticsCommand extends AbstractStatsCommand {
+    public RenderStatisticsCommand() {
+        super("sRenderStats", "Debug", "", "", "srs");
+    }
+
+    @Override
+    protected CommandResult onCommand(final CommandParameters commandParameters) {
+        final RenderExecutor.RenderStatistics statistics = this.getMineplexStatsModule().getRenderExecutor().getStatistics();
+
+        sendTimedMessage(
+                commandParameters,
+                getEmbedBuilder(commandParameters)
+                        .setTitle("Render Statistics")
+                        .addField("Rendered", String.valueOf(statistics.getRenderedPictures()), true)
+                        .addField("Rejected", String.valueOf(statistics.getRejectedPictures()), true)
+                        .addField("Timed Out", String.valueOf(statistics.getTimedOutPictures()), true)
+                        .addField("Queued", String.valueOf(statistics.getQueuedPictures()), true)
+                        .addField("Average Queue Wait", statistics.getAverageQueueWaitMs() + "ms", true)
+                        .addField("Max Queue Wait", statistics.getMaxQueueWaitMs() + "ms", true)
+                        .addField("Active Workers", String.valueOf(statistics.getActiveWorkers()), true)
+                        .addField("Queued Worker Tasks", String.valueOf(statistics.getQueuedWorkerTasks()), true),
+                90
+        );
+        return CommandResult.SUCCESS;
+    }
+}
@@ -18,6 +18,7 @@ import lombok.Setter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @EqualsAndHashCode(callSuper = true)
 @Setter
@@ -30,6 +31,9 @@ public abstract class AbstractJavaLeaderboardCommand extends AbstractJavaStatsCo
 
     private boolean filteredStats = true;
     private int leaderboardRowDistance = 15;
+    // Larger leaderboards are split into several pictures, 0 keeps them in one
+    private int rowsPerPicture = 0;
+    private boolean playerHeads = true;
 
     protected AbstractJavaLeaderboardCommand(final String name,
                                              final String description,
@@ -131,13 +135,23 @@ public abstract class AbstractJavaLeaderboardCommand extends AbstractJavaStatsCo
         final JavaLeaderboard.Info leaderboardInfo = leaderboardResponse.getInfo();
 
         final String[] header = this.getHeader(leaderboardInfo);
+        final PictureTable pictureTable = new PictureTable(
+                header,
+                this.getFormattedUnixTime(leaderboardInfo.getUnix()),
+                leaderboard
+        );
+        pictureTable.setRowsPerPicture(this.rowsPerPicture);
+        if (this.playerHeads) {
+            pictureTable.setRowIcons(this.getPlayerHeads(
+                    leaderboardResponse.getLeaderboard()
+                            .stream()
+                            .map(JavaLeaderboard.Leaderboard::getUuid)
+                            .collect(Collectors.toList())
+            ));
+        }
         return this.sendPicture(
                 this.getLeaderboardFixedCommandParameter(commandParameters, ARG_POS_END, ARG_POS_START),
-                new PictureTable(
-                        header,
-                        this.getFormattedUnixTime(leaderboardInfo.getUnix()),
-                        leaderboard
-                ).getPlayerPicture(),
+                pictureTable,
                 String.format("%s-%s", String.join("-", header), leaderboardInfo.getUnix()),
                 new EmoteReactionMessage(
                         this.getCustomEmotes(commandParameters, leaderboardResponse, startPos, endPos),
@@ -5,6 +5,7 @@ import de.timmi6790.discord_framework.modules.command.CommandResult;
 import de.timmi6790.discord_framework.modules.command.property.properties.ExampleCommandsCommandProperty;
 import de.timmi6790.discord_framework.modules.command.property.properties.MinArgCommandProperty;
 import de.timmi6790.discord_framework.modules.command.property.properties.RequiredDiscordBotPermsCommandProperty;
+import de.timmi6790.minecraft.utilities.PlayerSkin;
 import de.timmi6790.mineplex_stats.commands.AbstractStatsCommand;
 import de.timmi6790.mineplex_stats.picture.PictureTable;
 import de.timmi6790.mineplex_stats.statsapi.models.ResponseModel;
@@ -18,7 +19,6 @@ import lombok.EqualsAndHashCode;
 import lombok.SneakyThrows;
 import net.dv8tion.jda.api.Permission;
 
-import java.awt.image.BufferedImage;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -145,20 +145,20 @@ public abstract class AbstractJavaPlayerStatsCommand extends AbstractJavaStatsCo
         final JavaPlayerStats playerStats = (JavaPlayerStats) responseModel;
         final JavaPlayerStats.Info playerStatsInfo = playerStats.getInfo();
 
-        final CompletableFuture<BufferedImage> skinFuture = this.getPlayerSkin(playerStatsInfo.getUuid());
+        final CompletableFuture<PlayerSkin> skinFuture = this.getPlayerSkin(playerStatsInfo.getUuid());
         final LeaderboardData leaderboardData = this.parseLeaderBoard(playerStats);
-        final BufferedImage skin = this.awaitOrDefault(skinFuture, null);
 
         // This will resolve the issue when we only have website stats and the highest time is 0
         final String[] header = this.getHeader(playerStatsInfo);
-        return this.sendPicture(
+        return this.sendPictureProgressively(
                 commandParameters,
-                new PictureTable(
+                skinFuture,
+                skin -> new PictureTable(
                         header,
                         this.getFormattedUnixTime(leaderboardData.getHighestUnixTime()),
                         leaderboardData.getLeaderboard(),
                         skin
-                ).getPlayerPicture(),
+                ),
                 String.join("-", header) + "-" + leaderboardData.getHighestUnixTime()
         );
     }
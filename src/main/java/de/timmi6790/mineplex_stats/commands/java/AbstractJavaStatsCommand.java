@@ -6,6 +6,7 @@ import de.timmi6790.discord_framework.utilities.DataUtilities;
 import de.timmi6790.minecraft.mojang_api.MojangApi;
 import de.timmi6790.minecraft.mojang_api.models.MojangUser;
 import de.timmi6790.minecraft.utilities.JavaUtilities;
+import de.timmi6790.minecraft.utilities.PlayerSkin;
 import de.timmi6790.mineplex_stats.commands.AbstractStatsCommand;
 import de.timmi6790.mineplex_stats.commands.java.info.JavaGamesCommand;
 import de.timmi6790.mineplex_stats.commands.java.info.JavaGroupsGroupsCommand;
@@ -17,16 +18,11 @@ import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGroup;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaStat;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import net.dv8tion.jda.api.utils.MarkdownUtil;
 
 import java.awt.image.BufferedImage;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 @EqualsAndHashCode(callSuper = true)
@@ -48,17 +44,15 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
         return this.getFormattedNumber(score);
     }
 
-    protected CompletableFuture<BufferedImage> getPlayerSkin(@NonNull final UUID uuid) {
+    protected CompletableFuture<PlayerSkin> getPlayerSkin(@NonNull final UUID uuid) {
         return JavaUtilities.getPlayerSkin(uuid);
     }
 
-    @SneakyThrows
-    protected <T> T awaitOrDefault(final CompletableFuture<T> completableFuture, final T defaultValue) {
-        try {
-            return completableFuture.get();
-        } catch (final ExecutionException ignore) {
-            return defaultValue;
-        }
+    protected BufferedImage[] getPlayerHeads(@NonNull final List<UUID> uuids) {
+        return JavaUtilities.getPlayerHeads(
+                uuids,
+                this.getMineplexStatsModule().getStatsConfig().getPicture().getPlayerHeadDeadline()
+        );
     }
 
     // Arg Parsing
@@ -84,6 +78,7 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
         return this.getArgumentOrThrow(
                 commandParameters,
                 "game",
+                "",
                 argPos,
                 gameName -> this.getMineplexStatsModule()
                         .getJavaGame(gameName),
@@ -98,6 +93,7 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
         return this.getArgumentOrThrow(
                 commandParameters,
                 "stat",
+                game.getName(),
                 argPos,
                 game::getStat,
                 JavaStat::getName,
@@ -113,16 +109,24 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
         // Tries to locate the stat with the requested name and the highest board size.
         // We need the highest board size here to prevent an issue that it would later not find the board in the stat
         // This is a shitty fix for this issue and should be changed in the future
-        JavaStat foundStat = null;
-        for (final JavaGame game : this.getMineplexStatsModule().getJavaGames()) {
-            final Optional<JavaStat> statOpt = game.getStat(userInput);
-            if (statOpt.isPresent() &&
-                    (foundStat == null || statOpt.get().getBoards().size() > foundStat.getBoards().size())) {
-                foundStat = statOpt.get();
-            }
-        }
-        if (foundStat != null) {
-            return foundStat;
+        final ResolvedArgument<JavaStat> resolvedStat = this.resolveArgument(
+                "anyStat",
+                "",
+                userInput,
+                () -> {
+                    JavaStat foundStat = null;
+                    for (final JavaGame game : this.getMineplexStatsModule().getJavaGames()) {
+                        final Optional<JavaStat> statOpt = game.getStat(userInput);
+                        if (statOpt.isPresent() &&
+                                (foundStat == null || statOpt.get().getBoards().size() > foundStat.getBoards().size())) {
+                            foundStat = statOpt.get();
+                        }
+                    }
+                    return foundStat == null ? ResolvedArgument.ofSimilar(Collections.emptyList()) : ResolvedArgument.of(foundStat);
+                }
+        );
+        if (resolvedStat.getValue().isPresent()) {
+            return resolvedStat.getValue().get();
         }
 
         this.sendTimedMessage(
@@ -140,33 +144,19 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
 
     protected JavaBoard getBoard(final JavaGame game, final CommandParameters commandParameters, final int argPos) {
         final String userInput = this.getArgOrDefault(commandParameters, argPos, "All");
-        for (final JavaStat stat : game.getStats().values()) {
-            final Optional<JavaBoard> javaBoardOpt = stat.getBoard(userInput);
-            if (javaBoardOpt.isPresent()) {
-                return javaBoardOpt.get();
-            }
-        }
-
-        final List<String> similarBoards = DataUtilities.getSimilarityList(
+        final ResolvedArgument<JavaBoard> resolvedBoard = this.resolveArgument(
+                "gameBoard",
+                game.getName(),
                 userInput,
-                game.getStats()
-                        .values()
-                        .stream()
-                        .flatMap(stat -> stat.getBoardNames().stream())
-                        .collect(Collectors.toSet()),
-                0.0,
-                6
+                () -> this.resolveGameBoard(game, userInput)
         );
-        if (!similarBoards.isEmpty() && commandParameters.getUserDb().hasAutoCorrection()) {
-            final String newBoard = similarBoards.get(0);
-            final Optional<JavaBoard> similarBoard = game.getStats().values().stream()
-                    .flatMap(stat -> stat.getBoards().values().stream())
-                    .filter(board -> board.getName().equalsIgnoreCase(newBoard))
-                    .findAny();
+        if (resolvedBoard.getValue().isPresent()) {
+            return resolvedBoard.getValue().get();
+        }
 
-            if (similarBoard.isPresent()) {
-                return similarBoard.get();
-            }
+        final List<JavaBoard> similarBoards = resolvedBoard.getSimilarValues();
+        if (!similarBoards.isEmpty() && commandParameters.getUserDb().hasAutoCorrection()) {
+            return similarBoards.get(0);
         }
 
         this.sendHelpMessage(
@@ -179,11 +169,42 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
                         game.getName(),
                         game.getStats().values().stream().findFirst().map(JavaStat::getName).orElse("")
                 },
-                similarBoards
+                this.listToStringList(similarBoards, JavaBoard::getName)
         );
         throw new CommandReturnException();
     }
 
+    private ResolvedArgument<JavaBoard> resolveGameBoard(final JavaGame game, final String userInput) {
+        for (final JavaStat stat : game.getStats().values()) {
+            final Optional<JavaBoard> javaBoardOpt = stat.getBoard(userInput);
+            if (javaBoardOpt.isPresent()) {
+                return ResolvedArgument.of(javaBoardOpt.get());
+            }
+        }
+
+        final List<String> similarBoardNames = DataUtilities.getSimilarityList(
+                userInput,
+                game.getStats()
+                        .values()
+                        .stream()
+                        .flatMap(stat -> stat.getBoardNames().stream())
+                        .collect(Collectors.toSet()),
+                0.0,
+                6
+        );
+
+        // Map the names back to one board instance per name
+        final List<JavaBoard> similarBoards = new ArrayList<>(similarBoardNames.size());
+        for (final String boardName : similarBoardNames) {
+            game.getStats().values().stream()
+                    .flatMap(stat -> stat.getBoards().values().stream())
+                    .filter(board -> board.getName().equalsIgnoreCase(boardName))
+                    .findAny()
+                    .ifPresent(similarBoards::add);
+        }
+        return ResolvedArgument.ofSimilar(similarBoards);
+    }
+
     protected JavaBoard getBoard(final JavaGame game,
                                  final JavaStat stat,
                                  final CommandParameters commandParameters,
@@ -191,6 +212,7 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
         return this.getArgumentDefaultOrThrow(
                 commandParameters,
                 "board",
+                game.getName() + ":" + stat.getName(),
                 argPos,
                 "All",
                 stat::getBoard,
@@ -247,6 +269,7 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
         return this.getArgumentOrThrow(
                 commandParameters,
                 "group",
+                "",
                 argPos,
                 groupName -> this.getMineplexStatsModule().getJavaGroup(groupName),
                 JavaGroup::getName,
@@ -258,18 +281,30 @@ public abstract class AbstractJavaStatsCommand extends AbstractStatsCommand {
 
     protected JavaStat getJavaStat(final JavaGroup group, final CommandParameters commandParameters, final int argPos) {
         final String userInput = this.getArg(commandParameters, argPos);
-        for (final JavaGame game : group.getGames()) {
-            final Optional<JavaStat> statOpt = game.getStat(userInput);
-            if (statOpt.isPresent()) {
-                return statOpt.get();
-            }
+        final ResolvedArgument<JavaStat> resolvedStat = this.resolveArgument(
+                "groupStat",
+                group.getName(),
+                userInput,
+                () -> {
+                    for (final JavaGame game : group.getGames()) {
+                        final Optional<JavaStat> statOpt = game.getStat(userInput);
+                        if (statOpt.isPresent()) {
+                            return ResolvedArgument.of(statOpt.get());
+                        }
+                    }
+
+                    return ResolvedArgument.ofSimilar(this.getSimilarityList(
+                            JavaGame.getCleanStat(userInput),
+                            group.getStats(),
+                            JavaStat::getName
+                    ));
+                }
+        );
+        if (resolvedStat.getValue().isPresent()) {
+            return resolvedStat.getValue().get();
         }
 
-        final List<JavaStat> similarStats = this.getSimilarityList(
-                JavaGame.getCleanStat(userInput),
-                group.getStats(),
-                JavaStat::getName
-        );
+        final List<JavaStat> similarStats = resolvedStat.getSimilarValues();
         if (!similarStats.isEmpty() && commandParameters.getUserDb().hasAutoCorrection()) {
             return similarStats.get(0);
         }
@@ -0,0 +1,12 @@
+package de.timmi6790.mineplex_stats.commands.java;
+
+public class JavaBigLeaderboardCommand extends AbstractJavaLeaderboardCommand {
+    public JavaBigLeaderboardCommand() {
+        super("bigLeaderboard", "Java Leaderboard with up to 1000 rows", "blb");
+
+        this.setLeaderboardRowDistance(1_000);
+        this.setRowsPerPicture(100);
+        // Too many requests for the head service
+        this.setPlayerHeads(false);
+    }
+}
@@ -7,13 +7,21 @@ import de.timmi6790.discord_framework.utilities.MultiEmbedBuilder;
 import de.timmi6790.mineplex_stats.commands.java.AbstractJavaStatsCommand;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGame;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaStat;
+import de.timmi6790.mineplex_stats.utilities.SnapshotCache;
 import lombok.EqualsAndHashCode;
 import org.apache.commons.collections4.list.TreeList;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @EqualsAndHashCode(callSuper = true)
 public class JavaGamesCommand extends AbstractJavaStatsCommand {
+    private static final String ALL_GAMES_KEY = "";
+
+    // Embed fields, built once per metadata version
+    private final SnapshotCache<String, Consumer<MultiEmbedBuilder>> embedFieldsCache = new SnapshotCache<>(1_000);
+
     public JavaGamesCommand() {
         super("games", "Java Games", "[game] [stat]", "g");
 
@@ -43,73 +51,116 @@ public class JavaGamesCommand extends AbstractJavaStatsCommand {
         return this.handleStatInfo(commandParameters, game, stat);
     }
 
-    private CommandResult handleAllGames(final CommandParameters commandParameters) {
-        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
-                .setTitle("Java Games")
-                .setFooterFormat(
-                        "TIP: Run %s %s <game> to see more details",
-                        getCommandModule().getMainCommand(),
-                        this.getName()
-                );
+    private Consumer<MultiEmbedBuilder> getEmbedFields(final String key, final Supplier<Consumer<MultiEmbedBuilder>> fieldsSupplier) {
+        return this.embedFieldsCache.get(
+                this.getMineplexStatsModule().getMetadataVersion(),
+                key,
+                k -> fieldsSupplier.get()
+        );
+    }
 
+    private Consumer<MultiEmbedBuilder> buildAllGamesFields() {
         // Sort java games after category
         final Map<String, List<String>> sortedLeaderboard = new TreeMap<>();
         for (final JavaGame game : this.getMineplexStatsModule().getJavaGames()) {
             sortedLeaderboard.computeIfAbsent(game.getCategory(), k -> new TreeList<>()).add(game.getName());
         }
 
+        final Map<String, String> fields = new LinkedHashMap<>();
         for (final Map.Entry<String, List<String>> entry : sortedLeaderboard.entrySet()) {
-            List<String> gameNames = entry.getValue();
+            final List<String> gameNames = entry.getValue();
             gameNames.sort(Comparator.naturalOrder());
-            
-            message.addField(
-                    entry.getKey(),
-                    String.join(", ", gameNames)
-            );
+
+            fields.put(entry.getKey(), String.join(", ", gameNames));
         }
 
-        this.sendTimedMessage(commandParameters, message, 150);
-        return CommandResult.SUCCESS;
+        return message -> fields.forEach((name, value) -> message.addField(name, value));
     }
 
-    private CommandResult handleGameInfo(final CommandParameters commandParameters, final JavaGame game) {
+    private Consumer<MultiEmbedBuilder> buildGameInfoFields(final JavaGame game) {
         final StringJoiner stats = new StringJoiner(", ");
         for (final String stat : game.getStatNames()) {
             stats.add(stat.replace(" ", ""));
         }
 
+        final String wiki = "[" + game.getName() + "](" + game.getWikiUrl() + ")";
+        final String aliasNames = String.join(", ", game.getAliasNames());
+        final String statNames = stats.toString();
+        return message -> message
+                .addField(
+                        "Wiki",
+                        wiki,
+                        false,
+                        !game.getWikiUrl().isEmpty()
+                )
+                .addField(
+                        "Description",
+                        game.getDescription(),
+                        false,
+                        !game.getDescription().isEmpty()
+                )
+                .addField(
+                        "Alias names",
+                        aliasNames,
+                        false,
+                        !aliasNames.isEmpty()
+                )
+                .addField(
+                        "Stats (You don't need to type Achievement in front of it)",
+                        statNames
+                );
+    }
+
+    private Consumer<MultiEmbedBuilder> buildStatInfoFields(final JavaStat stat) {
+        final String aliasNames = String.join(", ", stat.getAliasNames());
+        final String boardNames = String.join(", ", stat.getBoardNamesSorted());
+        return message -> message
+                .addField(
+                        "Description",
+                        stat.getDescription(),
+                        false,
+                        !stat.getDescription().isEmpty()
+                )
+                .addField(
+                        "Alias names",
+                        aliasNames,
+                        false,
+                        !aliasNames.isEmpty()
+                )
+                .addField(
+                        "Boards",
+                        boardNames,
+                        false
+                );
+    }
+
+    private CommandResult handleAllGames(final CommandParameters commandParameters) {
+        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
+                .setTitle("Java Games")
+                .setFooterFormat(
+                        "TIP: Run %s %s <game> to see more details",
+                        getCommandModule().getMainCommand(),
+                        this.getName()
+                );
+        this.getEmbedFields(ALL_GAMES_KEY, this::buildAllGamesFields).accept(message);
+
+        this.sendTimedMessage(commandParameters, message, 150);
+        return CommandResult.SUCCESS;
+    }
+
+    private CommandResult handleGameInfo(final CommandParameters commandParameters, final JavaGame game) {
+        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
+                .setTitle("Java Games - " + game.getName());
+        this.getEmbedFields(game.getName(), () -> this.buildGameInfoFields(game)).accept(message);
+
         this.sendTimedMessage(
                 commandParameters,
-                this.getEmbedBuilder(commandParameters)
-                        .setTitle("Java Games - " + game.getName())
-                        .addField(
-                                "Wiki",
-                                "[" + game.getName() + "](" + game.getWikiUrl() + ")",
-                                false,
-                                !game.getWikiUrl().isEmpty()
-                        )
-                        .addField(
-                                "Description",
-                                game.getDescription(),
-                                false,
-                                !game.getDescription().isEmpty()
-                        )
-                        .addField(
-                                "Alias names",
-                                String.join(", ", game.getAliasNames()),
-                                false,
-                                game.getAliasNames().length > 0
-                        )
-                        .addField(
-                                "Stats (You don't need to type Achievement in front of it)",
-                                stats.toString()
-                        )
-                        .setFooterFormat(
-                                "TIP: Run %s %s %s <stat> to see more details",
-                                getCommandModule().getMainCommand(),
-                                this.getName(),
-                                game.getName()
-                        ),
+                message.setFooterFormat(
+                        "TIP: Run %s %s %s <stat> to see more details",
+                        getCommandModule().getMainCommand(),
+                        this.getName(),
+                        game.getName()
+                ),
                 90
         );
 
@@ -119,33 +170,15 @@ public class JavaGamesCommand extends AbstractJavaStatsCommand {
     private CommandResult handleStatInfo(final CommandParameters commandParameters,
                                          final JavaGame game,
                                          final JavaStat stat) {
-        this.sendTimedMessage(
-                commandParameters,
-                this.getEmbedBuilder(commandParameters)
-                        .setTitleFormat(
-                                "Java Games - %s - %s",
-                                game.getName(),
-                                stat.getPrintName()
-                        )
-                        .addField(
-                                "Description",
-                                stat.getDescription(),
-                                false,
-                                !stat.getDescription().isEmpty()
-                        )
-                        .addField(
-                                "Alias names",
-                                String.join(", ", stat.getAliasNames()),
-                                false,
-                                stat.getAliasNames().length > 0
-                        )
-                        .addField(
-                                "Boards",
-                                String.join(", ", stat.getBoardNamesSorted()),
-                                false
-                        ),
-                150
-        );
+        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
+                .setTitleFormat(
+                        "Java Games - %s - %s",
+                        game.getName(),
+                        stat.getPrintName()
+                );
+        this.getEmbedFields(game.getName() + ":" + stat.getName(), () -> this.buildStatInfoFields(stat)).accept(message);
+
+        this.sendTimedMessage(commandParameters, message, 150);
         return CommandResult.SUCCESS;
     }
 }
@@ -3,16 +3,24 @@ package de.timmi6790.mineplex_stats.commands.java.info;
 import de.timmi6790.discord_framework.modules.command.CommandParameters;
 import de.timmi6790.discord_framework.modules.command.CommandResult;
 import de.timmi6790.discord_framework.modules.command.property.properties.ExampleCommandsCommandProperty;
+import de.timmi6790.discord_framework.utilities.MultiEmbedBuilder;
 import de.timmi6790.mineplex_stats.commands.java.AbstractJavaStatsCommand;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGroup;
+import de.timmi6790.mineplex_stats.utilities.SnapshotCache;
 import lombok.EqualsAndHashCode;
 import org.apache.commons.collections4.list.TreeList;
 
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 @EqualsAndHashCode(callSuper = true)
 public class JavaGroupsGroupsCommand extends AbstractJavaStatsCommand {
+    private static final String ALL_GROUPS_KEY = "";
+
+    // Embed fields, built once per metadata version
+    private final SnapshotCache<String, Consumer<MultiEmbedBuilder>> embedFieldsCache = new SnapshotCache<>(200);
+
     public JavaGroupsGroupsCommand() {
         super("groups", "Java Groups", "[group]");
 
@@ -36,60 +44,80 @@ public class JavaGroupsGroupsCommand extends AbstractJavaStatsCommand {
         return this.handleGroupInfo(commandParameters, group);
     }
 
-    private CommandResult handleAllGroups(final CommandParameters commandParameters) {
+    private Consumer<MultiEmbedBuilder> buildAllGroupsFields() {
         final List<String> sortedGroupNames = new TreeList<>();
         for (final JavaGroup group : this.getMineplexStatsModule().getJavaGroups()) {
             sortedGroupNames.add(group.getName());
         }
 
-        this.sendTimedMessage(
-                commandParameters,
-                this.getEmbedBuilder(commandParameters)
-                        .setTitle("Java Groups")
-                        .addField("Groups", String.join("\n", sortedGroupNames))
-                        .setFooterFormat(
-                                "TIP: Run %s %s <group> to see more details",
-                                getCommandModule().getMainCommand(),
-                                this.getName()
-                        ),
-                150
-        );
-        return CommandResult.SUCCESS;
+        final String groupNames = String.join("\n", sortedGroupNames);
+        return message -> message.addField("Groups", groupNames);
     }
 
-    private CommandResult handleGroupInfo(final CommandParameters commandParameters, final JavaGroup group) {
+    private Consumer<MultiEmbedBuilder> buildGroupInfoFields(final JavaGroup group) {
         // Remove "Achievement" from all stat names, because MixedArcade is above the 1024 character limit
         final StringJoiner stats = new StringJoiner(", ");
         for (final String statName : group.getStatNames()) {
             stats.add(statName.replace(" ", "").replace("Achievement", ""));
         }
 
+        final String aliasNames = String.join(", ", group.getAliasNames());
+        final String gameNames = String.join(", ", group.getGameNames());
+        final String statNames = stats.toString().substring(0, Math.min(stats.length(), 1024));
+        return message -> message
+                .addField(
+                        "Description",
+                        group.getDescription(),
+                        false,
+                        !group.getDescription().isEmpty()
+                )
+                .addField(
+                        "Alias names",
+                        aliasNames,
+                        false,
+                        !aliasNames.isEmpty()
+                )
+                .addField(
+                        "Games",
+                        gameNames
+                )
+                .addField(
+                        "Stats",
+                        statNames
+                );
+    }
+
+    private CommandResult handleAllGroups(final CommandParameters commandParameters) {
+        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
+                .setTitle("Java Groups");
+        this.embedFieldsCache.get(
+                this.getMineplexStatsModule().getMetadataVersion(),
+                ALL_GROUPS_KEY,
+                key -> this.buildAllGroupsFields()
+        ).accept(message);
+
         this.sendTimedMessage(
                 commandParameters,
-                this.getEmbedBuilder(commandParameters)
-                        .setTitle("Java Groups - " + group.getName())
-                        .addField(
-                                "Description",
-                                group.getDescription(),
-                                false,
-                                !group.getDescription().isEmpty()
-                        )
-                        .addField(
-                                "Alias names",
-                                String.join(", ", group.getAliasNames()),
-                                false,
-                                group.getAliasNames().length > 0
-                        )
-                        .addField(
-                                "Games",
-                                String.join(", ", group.getGameNames())
-                        )
-                        .addField(
-                                "Stats",
-                                stats.toString().substring(0, Math.min(stats.length(), 1024))
-                        ),
+                message.setFooterFormat(
+                        "TIP: Run %s %s <group> to see more details",
+                        getCommandModule().getMainCommand(),
+                        this.getName()
+                ),
                 150
         );
         return CommandResult.SUCCESS;
     }
+
+    private CommandResult handleGroupInfo(final CommandParameters commandParameters, final JavaGroup group) {
+        final MultiEmbedBuilder message = this.getEmbedBuilder(commandParameters)
+                .setTitle("Java Groups - " + group.getName());
+        this.embedFieldsCache.get(
+                this.getMineplexStatsModule().getMetadataVersion(),
+                group.getName(),
+                key -> this.buildGroupInfoFields(group)
+        ).accept(message);
+
+        this.sendTimedMessage(commandParameters, message, 150);
+        return CommandResult.SUCCESS;
+    }
 }
@@ -22,10 +22,14 @@ public class JavaBoardAliasCommand extends AbstractJavaStatsCommand {
         final JavaBoards board = this.getFromEnumIgnoreCaseThrow(commandParameters, 0, JavaBoards.values());
         final String newAlias = this.getArg(commandParameters, 1);
 
-        this.getMineplexStatsModule()
+        final boolean added = this.getMineplexStatsModule()
                 .getMpStatsRestClient()
                 .addJavaBoardAlias(EnumUtilities.getPrettyName(board), newAlias);
-        this.getMineplexStatsModule().loadJavaGames();
+        if (!added) {
+            this.sendErrorMessage(commandParameters, "Failed to add the board alias " + MarkdownUtil.monospace(newAlias) + ".");
+            return CommandResult.ERROR;
+        }
+        this.getMineplexStatsModule().addJavaBoardAlias(EnumUtilities.getPrettyName(board), newAlias);
 
         this.sendTimedMessage(
                 commandParameters,
@@ -22,10 +22,14 @@ public class JavaGameAliasCommand extends AbstractJavaStatsCommand {
         final JavaGame game = this.getGame(commandParameters, 0);
         final String newAlias = this.getArg(commandParameters, 1);
 
-        this.getMineplexStatsModule()
+        final boolean added = this.getMineplexStatsModule()
                 .getMpStatsRestClient()
                 .addJavaGameAlias(game.getName(), newAlias);
-        this.getMineplexStatsModule().loadJavaGames();
+        if (!added) {
+            this.sendErrorMessage(commandParameters, "Failed to add the game alias " + MarkdownUtil.monospace(newAlias) + ".");
+            return CommandResult.ERROR;
+        }
+        this.getMineplexStatsModule().addJavaGameAlias(game.getName(), newAlias);
 
         this.sendTimedMessage(
                 commandParameters,
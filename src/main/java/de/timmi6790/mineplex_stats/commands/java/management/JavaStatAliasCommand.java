@@ -24,10 +24,14 @@ public class JavaStatAliasCommand extends AbstractJavaStatsCommand {
         final JavaStat stat = this.getStat(game, commandParameters, 1);
         final String newAlias = this.getArg(commandParameters, 2);
 
-        this.getMineplexStatsModule()
+        final boolean added = this.getMineplexStatsModule()
                 .getMpStatsRestClient()
                 .addJavaStatAlias(game.getName(), stat.getName(), newAlias);
-        this.getMineplexStatsModule().loadJavaGames();
+        if (!added) {
+            this.sendErrorMessage(commandParameters, "Failed to add the stat alias " + MarkdownUtil.monospace(newAlias) + ".");
+            return CommandResult.ERROR;
+        }
+        this.getMineplexStatsModule().addJavaStatAlias(game.getName(), stat.getName(), newAlias);
 
         this.sendTimedMessage(
                 commandParameters,
@@ -4,6 +4,7 @@ import de.timmi6790.discord_framework.modules.command.CommandParameters;
 import de.timmi6790.discord_framework.modules.command.CommandResult;
 import de.timmi6790.discord_framework.modules.command.property.properties.ExampleCommandsCommandProperty;
 import de.timmi6790.discord_framework.modules.command.property.properties.MinArgCommandProperty;
+import de.timmi6790.minecraft.utilities.PlayerSkin;
 import de.timmi6790.mineplex_stats.commands.java.AbstractJavaStatsCommand;
 import de.timmi6790.mineplex_stats.picture.PictureTable;
 import de.timmi6790.mineplex_stats.statsapi.models.ResponseModel;
@@ -11,7 +12,6 @@ import de.timmi6790.mineplex_stats.statsapi.models.java.*;
 import de.timmi6790.mineplex_stats.utilities.BiggestLong;
 import lombok.Data;
 
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -93,18 +93,18 @@ public class JavaPlayerGroupCommand extends AbstractJavaStatsCommand {
 
         // Parse data
         final JavaGroupsPlayer groupStats = (JavaGroupsPlayer) responseModel;
-        final CompletableFuture<BufferedImage> skinFuture = this.getPlayerSkin(groupStats.getInfo().getUuid());
+        final CompletableFuture<PlayerSkin> skinFuture = this.getPlayerSkin(groupStats.getInfo().getUuid());
         final LeaderboardData leaderboardData = this.parseLeaderboard(groupStats, stat, statSpecificGames);
-        final BufferedImage skin = this.awaitOrDefault(skinFuture, null);
 
-        return this.sendPicture(
+        return this.sendPictureProgressively(
                 commandParameters,
-                new PictureTable(
+                skinFuture,
+                skin -> new PictureTable(
                         leaderboardData.getHeader(),
                         this.getFormattedUnixTime(leaderboardData.getHighestUnixTime()),
                         leaderboardData.getLeaderboard(),
                         skin
-                ).getPlayerPicture(),
+                ),
                 String.join("-", leaderboardData.getHeader()) + "-" + leaderboardData.getHighestUnixTime()
         );
     }
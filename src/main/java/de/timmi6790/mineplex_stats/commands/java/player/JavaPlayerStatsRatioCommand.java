@@ -1,13 +1,11 @@
 package de.timmi6790.mineplex_stats.commands.java.player;
 
-import com.googlecode.charts4j.GCharts;
-import com.googlecode.charts4j.PieChart;
-import com.googlecode.charts4j.Slice;
 import de.timmi6790.discord_framework.modules.command.CommandParameters;
 import de.timmi6790.discord_framework.modules.command.CommandResult;
 import de.timmi6790.discord_framework.modules.command.property.properties.ExampleCommandsCommandProperty;
 import de.timmi6790.discord_framework.modules.command.property.properties.MinArgCommandProperty;
 import de.timmi6790.mineplex_stats.commands.java.AbstractJavaStatsCommand;
+import de.timmi6790.mineplex_stats.picture.PicturePieChart;
 import de.timmi6790.mineplex_stats.settings.DisclaimerMessagesSetting;
 import de.timmi6790.mineplex_stats.statsapi.models.ResponseModel;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaBoard;
@@ -26,11 +24,10 @@ import java.util.List;
 import java.util.Locale;
 
 public class JavaPlayerStatsRatioCommand extends AbstractJavaStatsCommand {
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#0.00");
-
-    static {
-        DECIMAL_FORMAT.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(Locale.US));
-    }
+    // DecimalFormat is not thread safe
+    private static final ThreadLocal<DecimalFormat> PERCENTAGE_FORMAT = ThreadLocal.withInitial(
+            () -> new DecimalFormat("#0.00", DecimalFormatSymbols.getInstance(Locale.US))
+    );
 
     public JavaPlayerStatsRatioCommand() {
         super("playerstats", "Player stats as graph", "<player> <stat> [board]", "pls", "plsats", "plstat");
@@ -46,24 +43,14 @@ public class JavaPlayerStatsRatioCommand extends AbstractJavaStatsCommand {
         );
     }
 
-    private String generatePieUrl(final PieChart gCharts) {
-        String url = gCharts.toURLString();
-        // Series colours | RED, YELLOW_GREEN, GREEN, BLUE, PURPLE
-        url += "&chco=FF0000,ADFF2F,00FF00,0000FF,a020f0";
-        // Legend colour and size
-        url += "&chdls=ffffff,15";
-        // Legend order
-        url += "&chdlp=r|a";
-
-        return url;
-    }
-
     private PieSlicesData parseSlices(final long totalValue, final List<JavaRatioPlayer.Stat> stats) {
         stats.sort(Comparator.comparingLong(JavaRatioPlayer.Stat::getScore));
 
         final BiggestLong highestUnixTime = new BiggestLong();
-        final List<Slice> slices = new ArrayList<>();
-        for (final JavaRatioPlayer.Stat stat : stats) {
+        final String[] labels = new String[stats.size()];
+        final long[] values = new long[stats.size()];
+        for (int index = 0; stats.size() > index; index++) {
+            final JavaRatioPlayer.Stat stat = stats.get(index);
             final double percentage;
             if (totalValue == 0 || stat.getScore() == 0) {
                 percentage = 0;
@@ -72,20 +59,18 @@ public class JavaPlayerStatsRatioCommand extends AbstractJavaStatsCommand {
             }
 
             highestUnixTime.tryNumber(stat.getUnix());
-            slices.add(Slice.newSlice(
-                    (int) Math.round(percentage * 100),
-                    String.format("%s %s %s",
-                            stat.getGame(),
-                            DECIMAL_FORMAT.format(percentage) + "%",
-                            this.getFormattedNumber(stat.getScore())
-                    )
-            ));
+            labels[index] = String.format("%s %s %s",
+                    stat.getGame(),
+                    PERCENTAGE_FORMAT.get().format(percentage) + "%",
+                    this.getFormattedNumber(stat.getScore())
+            );
+            values[index] = Math.max(0, stat.getScore());
         }
 
-        return new PieSlicesData(slices, highestUnixTime.get());
+        return new PieSlicesData(labels, values, highestUnixTime.get());
     }
 
-    private String generatePieChart(final JavaRatioPlayer javaRatioPlayer) {
+    private PicturePieChart generatePieChart(final JavaRatioPlayer javaRatioPlayer) {
         final JavaRatioPlayer.Info info = javaRatioPlayer.getInfo();
         final long totalValue = info.getTotalNumber();
 
@@ -95,18 +80,18 @@ public class JavaPlayerStatsRatioCommand extends AbstractJavaStatsCommand {
                 new ArrayList<>(javaRatioPlayer.getStats().values())
         );
 
-        final PieChart pieChart = GCharts.newPieChart(pieSlicesData.getSlices());
-        pieChart.setSize(750, 400);
-        pieChart.setTitle(String.format(
-                "%s %s %s %s %s",
-                info.getName(),
-                info.getStat(),
-                info.getBoard(),
-                this.getFormattedNumber(totalValue),
-                this.getFormattedUnixTime(pieSlicesData.getHighestUnixTime())
-        ));
-
-        return this.generatePieUrl(pieChart);
+        return new PicturePieChart(
+                String.format(
+                        "%s %s %s %s %s",
+                        info.getName(),
+                        info.getStat(),
+                        info.getBoard(),
+                        this.getFormattedNumber(totalValue),
+                        this.getFormattedUnixTime(pieSlicesData.getHighestUnixTime())
+                ),
+                pieSlicesData.getLabels(),
+                pieSlicesData.getValues()
+        );
     }
 
     @Override
@@ -124,13 +109,20 @@ public class JavaPlayerStatsRatioCommand extends AbstractJavaStatsCommand {
                 .getPlayerStatsRatio(player, stat.getPrintName(), board.getName(), unixTime);
         this.checkApiResponseThrow(commandParameters, responseModel, "No stats available");
 
-        final String pieUrl = this.generatePieChart((JavaRatioPlayer) responseModel);
-
-        // Send to server
-        commandParameters.getLowestMessageChannel()
-                .sendMessage(pieUrl)
-                .queue();
-
+        final JavaRatioPlayer javaRatioPlayer = (JavaRatioPlayer) responseModel;
+        final CommandResult commandResult = this.sendPicture(
+                commandParameters,
+                this.generatePieChart(javaRatioPlayer),
+                String.format(
+                        "%s-%s-%s-ratio",
+                        javaRatioPlayer.getInfo().getName(),
+                        javaRatioPlayer.getInfo().getStat(),
+                        javaRatioPlayer.getInfo().getBoard()
+                )
+        );
+        if (commandResult != CommandResult.SUCCESS) {
+            return commandResult;
+        }
 
         if (commandParameters.getUserDb().getSettingOrDefault(DisclaimerMessagesSetting.class, true)) {
             this.sendMessage(
@@ -155,7 +147,8 @@ public class JavaPlayerStatsRatioCommand extends AbstractJavaStatsCommand {
 
     @Data
     private static class PieSlicesData {
-        private final List<Slice> slices;
+        private final String[] labels;
+        private final long[] values;
         private final long highestUnixTime;
     }
 }
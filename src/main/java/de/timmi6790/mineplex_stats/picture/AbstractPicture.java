@@ -1,28 +1,71 @@
 package de.timmi6790.mineplex_stats.picture;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import de.timmi6790.discord_framework.DiscordBot;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class AbstractPicture {
     public static final Color COLOUR_DISCORD_DARK_MODE = new Color(54, 57, 63);
 
-    protected static final Graphics2D GD_TEST = new BufferedImage(1, 1, BufferedImage.TYPE_4BYTE_ABGR).createGraphics();
+    /**
+     * Renders and encodes the picture.
+     *
+     * @return the encoded picture or null if it can't be encoded
+     */
+    public abstract EncodedPicture getPicture();
+
+    /**
+     * Renders and encodes the picture, pictures that are too large for one image are split into several parts.
+     *
+     * @return the encoded parts, a part is null if it can't be encoded
+     */
+    public List<EncodedPicture> getPictures() {
+        return Collections.singletonList(this.getPicture());
+    }
+
+    /**
+     * Returns the cached picture of the key or renders it. Concurrent requests for the same key wait for the first render.
+     */
+    protected static <K, V> V getOrRenderPicture(final AsyncCache<K, V> cache,
+                                                final K key,
+                                                final Supplier<V> renderer) {
+        final CompletableFuture<V> renderFuture = new CompletableFuture<>();
+        final CompletableFuture<V> existingFuture = cache.asMap().putIfAbsent(key, renderFuture);
+        if (existingFuture != null) {
+            return existingFuture.join();
+        }
+
+        try {
+            final V picture = renderer.get();
+            // The cache drops futures that complete with null or exceptionally, the next request renders again
+            renderFuture.complete(picture);
+            return picture;
+        } catch (final RuntimeException | Error e) {
+            // Waiting requests would otherwise never finish
+            renderFuture.completeExceptionally(e);
+            throw e;
+        }
+    }
 
     protected int getTextWidth(final String text, final Font font) {
-        return GD_TEST.getFontMetrics(font).stringWidth(text);
+        return TextMeasurer.getTextWidth(text, font);
     }
 
     protected Graphics2D getDiscordGraphics(final BufferedImage image) {
+        return createDiscordGraphics(image);
+    }
+
+    static Graphics2D createDiscordGraphics(final BufferedImage image) {
         final Graphics2D gd = image.createGraphics();
 
         // Render hints
@@ -43,12 +86,16 @@ public abstract class AbstractPicture {
         return gd;
     }
 
-    protected InputStream convertToInputStream(final BufferedImage image) {
-        try (final ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            ImageIO.write(image, "png", os);
-            return new ByteArrayInputStream(os.toByteArray());
+    protected EncodedPicture convertToPicture(final BufferedImage image) {
+        // Most tables compress to well below a quarter of a byte per pixel
+        final PictureBuffer buffer = PictureBuffer.acquire(image.getWidth() * image.getHeight() / 4);
+        try {
+            PngEncoder.encode(image, buffer);
+            return buffer.toEncodedPicture();
         } catch (final IOException e) {
             DiscordBot.getLogger().error(e);
+        } finally {
+            buffer.release();
         }
 
         return null;
@@ -0,0 +1,48 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * An encoded png picture. The data is never modified after creation.
+ */
+public class EncodedPicture {
+    private static final char[] HEX_CHARACTERS = "0123456789abcdef".toCharArray();
+
+    private final byte[] data;
+    @Getter(lazy = true)
+    private final String contentHash = this.calculateContentHash();
+
+    public EncodedPicture(@NonNull final byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Returns the encoded data without copying it. The returned array must not be modified.
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+
+    public int getSize() {
+        return this.data.length;
+    }
+
+    private String calculateContentHash() {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(this.data);
+            final char[] hex = new char[hash.length * 2];
+            for (int index = 0; hash.length > index; index++) {
+                hex[index * 2] = HEX_CHARACTERS[(hash[index] >> 4) & 0xF];
+                hex[index * 2 + 1] = HEX_CHARACTERS[hash[index] & 0xF];
+            }
+            return new String(hex);
+        } catch (final NoSuchAlgorithmException e) {
+            // Every java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
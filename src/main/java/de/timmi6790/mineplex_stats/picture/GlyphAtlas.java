@@ -0,0 +1,213 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-rasterized latin glyphs of one font, rendered in white onto the discord background with the hints of our pictures.
+ * Without fractional metrics every glyph is placed on whole pixels, so drawing the stored pixels at the glyph positions
+ * gives exactly the same result as {@link Graphics2D#drawString(String, int, int)} onto the untouched background.
+ * Texts with other characters, or with glyphs that would cover the same pixel, are not drawn by the atlas.
+ */
+public class GlyphAtlas {
+    private static final int CACHED_CHARACTERS = 0x100;
+    private static final Map<Font, GlyphAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    private static volatile boolean enabled = true;
+
+    private final Glyph[] glyphs = new Glyph[CACHED_CHARACTERS];
+
+    private GlyphAtlas(final Font font) {
+        // The advances depend on the text hints, they are taken from the same graphics as the glyphs
+        final Graphics2D metricsGraphics = AbstractPicture.createDiscordGraphics(new BufferedImage(1, 1, BufferedImage.TYPE_4BYTE_ABGR));
+        final FontMetrics metrics = metricsGraphics.getFontMetrics(font);
+        metricsGraphics.dispose();
+
+        for (int character = 0; CACHED_CHARACTERS > character; character++) {
+            if (!Character.isISOControl(character) && font.canDisplay(character)) {
+                this.glyphs[character] = createGlyph(font, metrics, (char) character);
+            }
+        }
+    }
+
+    private static Glyph createGlyph(final Font font, final FontMetrics metrics, final char character) {
+        // Large enough for every glyph overhang
+        final int originX = font.getSize();
+        final int originY = font.getSize() * 2;
+        final BufferedImage tile = new BufferedImage(
+                metrics.charWidth(character) + font.getSize() * 2,
+                font.getSize() * 3,
+                BufferedImage.TYPE_4BYTE_ABGR
+        );
+        final Graphics2D gd = AbstractPicture.createDiscordGraphics(tile);
+        gd.setFont(font);
+        gd.drawString(String.valueOf(character), originX, originY);
+        gd.dispose();
+
+        final int background = AbstractPicture.COLOUR_DISCORD_DARK_MODE.getRGB();
+        final List<int[]> pixels = new ArrayList<>();
+        for (int y = 0; tile.getHeight() > y; y++) {
+            for (int x = 0; tile.getWidth() > x; x++) {
+                final int pixel = tile.getRGB(x, y);
+                if (pixel != background) {
+                    pixels.add(new int[]{x - originX, y - originY, pixel});
+                }
+            }
+        }
+
+        return new Glyph(metrics.charWidth(character), pixels);
+    }
+
+    static void warmUp(final Font font) {
+        ATLASES.computeIfAbsent(font, GlyphAtlas::new);
+    }
+
+    /**
+     * Draws the white text onto the discord background of the image.
+     *
+     * @return false if the text can't be drawn by the atlas, nothing is drawn in that case
+     */
+    public static boolean drawString(@NonNull final BufferedImage image,
+                                     @NonNull final String text,
+                                     @NonNull final Font font,
+                                     final int x,
+                                     final int y) {
+        final WritableRaster raster = image.getRaster();
+        if (!enabled
+                || image.getType() != BufferedImage.TYPE_4BYTE_ABGR
+                || !(raster.getSampleModel() instanceof PixelInterleavedSampleModel)) {
+            return false;
+        }
+
+        final GlyphAtlas atlas = ATLASES.computeIfAbsent(font, GlyphAtlas::new);
+        final Glyph[] textGlyphs = new Glyph[text.length()];
+        final int[] positions = new int[text.length()];
+        int position = x;
+        for (int index = 0; text.length() > index; index++) {
+            final char character = text.charAt(index);
+            final Glyph glyph = character < CACHED_CHARACTERS ? atlas.glyphs[character] : null;
+            if (glyph == null) {
+                return false;
+            }
+
+            if (!glyph.isEmpty()
+                    && (position + glyph.getMinX() < 0 || position + glyph.getMaxX() >= image.getWidth()
+                    || y + glyph.getMinY() < 0 || y + glyph.getMaxY() >= image.getHeight())) {
+                return false;
+            }
+
+            // Java2D would blend both glyphs into a shared pixel
+            for (int previous = 0; index > previous; previous++) {
+                final Glyph previousGlyph = textGlyphs[previous];
+                if (!glyph.isEmpty()
+                        && !previousGlyph.isEmpty()
+                        && positions[previous] + previousGlyph.getMaxX() >= position + glyph.getMinX()
+                        && glyph.overlaps(previousGlyph, positions[previous] - position)) {
+                    return false;
+                }
+            }
+
+            textGlyphs[index] = glyph;
+            positions[index] = position;
+            position += glyph.getAdvance();
+        }
+
+        final byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+        final int scanlineStride = ((PixelInterleavedSampleModel) raster.getSampleModel()).getScanlineStride();
+        final int startPosition = -raster.getSampleModelTranslateY() * scanlineStride - raster.getSampleModelTranslateX() * 4;
+        for (int index = 0; textGlyphs.length > index; index++) {
+            textGlyphs[index].draw(data, startPosition, scanlineStride, positions[index], y);
+        }
+        return true;
+    }
+
+    @Getter
+    private static class Glyph {
+        private final int advance;
+        private final int[] offsetsX;
+        private final int[] offsetsY;
+        private final byte[] abgr;
+        private int minX = Integer.MAX_VALUE;
+        private int maxX = Integer.MIN_VALUE;
+        private int minY = Integer.MAX_VALUE;
+        private int maxY = Integer.MIN_VALUE;
+        private final boolean[] mask;
+
+        Glyph(final int advance, final List<int[]> pixels) {
+            this.advance = advance;
+            this.offsetsX = new int[pixels.size()];
+            this.offsetsY = new int[pixels.size()];
+            this.abgr = new byte[pixels.size() * 4];
+            for (int index = 0; pixels.size() > index; index++) {
+                final int[] pixel = pixels.get(index);
+                this.offsetsX[index] = pixel[0];
+                this.offsetsY[index] = pixel[1];
+                this.abgr[index * 4] = (byte) (pixel[2] >>> 24);
+                this.abgr[index * 4 + 1] = (byte) pixel[2];
+                this.abgr[index * 4 + 2] = (byte) (pixel[2] >> 8);
+                this.abgr[index * 4 + 3] = (byte) (pixel[2] >> 16);
+
+                this.minX = Math.min(this.minX, pixel[0]);
+                this.maxX = Math.max(this.maxX, pixel[0]);
+                this.minY = Math.min(this.minY, pixel[1]);
+                this.maxY = Math.max(this.maxY, pixel[1]);
+            }
+
+            this.mask = new boolean[this.isEmpty() ? 0 : this.getWidth() * (this.maxY - this.minY + 1)];
+            for (int index = 0; this.offsetsX.length > index; index++) {
+                this.mask[this.maskIndex(this.offsetsX[index], this.offsetsY[index])] = true;
+            }
+        }
+
+        boolean isEmpty() {
+            return this.offsetsX.length == 0;
+        }
+
+        int getWidth() {
+            return this.maxX - this.minX + 1;
+        }
+
+        private int maskIndex(final int offsetX, final int offsetY) {
+            return (offsetY - this.minY) * this.getWidth() + offsetX - this.minX;
+        }
+
+        /**
+         * Checks if any pixel of this glyph is also covered by the other glyph, drawn distance pixels further right.
+         */
+        boolean overlaps(final Glyph other, final int distance) {
+            for (int index = 0; other.offsetsX.length > index; index++) {
+                final int offsetX = other.offsetsX[index] + distance;
+                final int offsetY = other.offsetsY[index];
+                if (offsetX >= this.minX && offsetX <= this.maxX && offsetY >= this.minY && offsetY <= this.maxY
+                        && this.mask[this.maskIndex(offsetX, offsetY)]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void draw(final byte[] data, final int startPosition, final int scanlineStride, final int x, final int y) {
+            for (int index = 0; this.offsetsX.length > index; index++) {
+                final int position = startPosition + (y + this.offsetsY[index]) * scanlineStride + (x + this.offsetsX[index]) * 4;
+                final int pixel = index * 4;
+                data[position] = this.abgr[pixel];
+                data[position + 1] = this.abgr[pixel + 1];
+                data[position + 2] = this.abgr[pixel + 2];
+                data[position + 3] = this.abgr[pixel + 3];
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.awt.image.BufferedImage;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of reusable ABGR images to render into.
+ * Images are grouped into buckets of rounded up sizes, a requested size is served as sub image of a pooled bucket image.
+ * The content of a reused image is not cleared, every picture paints its full background anyway.
+ */
+@UtilityClass
+public class ImagePool {
+    private static final int BUCKET_STEP = 256;
+    private static final int MAX_IMAGES_PER_BUCKET = 2;
+    // Larger images are rare and not worth keeping around
+    private static final long MAX_POOLED_IMAGE_BYTES = 32L * 1024 * 1024;
+    private static final long MAX_RETAINED_BYTES = 96L * 1024 * 1024;
+
+    private static final Map<Long, Deque<BufferedImage>> BUCKETS = new ConcurrentHashMap<>();
+    private static final AtomicLong RETAINED_BYTES = new AtomicLong();
+
+    public PooledImage acquire(final int width, final int height) {
+        final int bucketWidth = roundUp(width);
+        final int bucketHeight = roundUp(height);
+        if (getBytes(bucketWidth, bucketHeight) > MAX_POOLED_IMAGE_BYTES) {
+            return new PooledImage(null, new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR));
+        }
+
+        final Deque<BufferedImage> bucket = BUCKETS.computeIfAbsent(getBucketKey(bucketWidth, bucketHeight), key -> new ConcurrentLinkedDeque<>());
+        BufferedImage bucketImage = bucket.pollFirst();
+        if (bucketImage == null) {
+            bucketImage = new BufferedImage(bucketWidth, bucketHeight, BufferedImage.TYPE_4BYTE_ABGR);
+        } else {
+            RETAINED_BYTES.addAndGet(-getBytes(bucketWidth, bucketHeight));
+        }
+
+        return new PooledImage(bucketImage, bucketImage.getSubimage(0, 0, width, height));
+    }
+
+    private void release(final BufferedImage bucketImage) {
+        final long bytes = getBytes(bucketImage.getWidth(), bucketImage.getHeight());
+        final Deque<BufferedImage> bucket = BUCKETS.get(getBucketKey(bucketImage.getWidth(), bucketImage.getHeight()));
+        // The size checks are not atomic, the limits can be exceeded by a few images under contention
+        if (bucket.size() >= MAX_IMAGES_PER_BUCKET || RETAINED_BYTES.get() + bytes > MAX_RETAINED_BYTES) {
+            return;
+        }
+
+        RETAINED_BYTES.addAndGet(bytes);
+        bucket.offerFirst(bucketImage);
+    }
+
+    private int roundUp(final int size) {
+        return Math.max(1, (size + BUCKET_STEP - 1) / BUCKET_STEP) * BUCKET_STEP;
+    }
+
+    private long getBucketKey(final int width, final int height) {
+        return ((long) width << 32) | height;
+    }
+
+    private long getBytes(final int width, final int height) {
+        return (long) width * height * 4;
+    }
+
+    /**
+     * Image borrowed from the pool. It must not be used after it is released.
+     */
+    public static class PooledImage implements AutoCloseable {
+        private final BufferedImage bucketImage;
+        @Getter
+        private final BufferedImage image;
+        private boolean released = false;
+
+        private PooledImage(final BufferedImage bucketImage, @NonNull final BufferedImage image) {
+            this.bucketImage = bucketImage;
+            this.image = image;
+        }
+
+        @Override
+        public void close() {
+            if (this.bucketImage != null && !this.released) {
+                this.released = true;
+                release(this.bucketImage);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that exposes its backing array.
+ * Every thread keeps one pooled buffer for encoding, so the encoder normally writes into an already large enough
+ * array and the result is copied exactly once into the {@link EncodedPicture}.
+ */
+class PictureBuffer extends OutputStream {
+    private static final int INITIAL_SIZE = 256 * 1024;
+    // Buffers that grew above this after a huge picture are not kept around
+    private static final int MAX_RETAINED_SIZE = 8 * 1024 * 1024;
+    private static final ThreadLocal<PictureBuffer> POOLED_BUFFERS = ThreadLocal.withInitial(() -> new PictureBuffer(INITIAL_SIZE));
+
+    private byte[] data;
+    private int size = 0;
+
+    PictureBuffer(final int initialSize) {
+        this.data = new byte[Math.max(16, initialSize)];
+    }
+
+    /**
+     * Returns the empty pooled buffer of the current thread. It has to be released after use.
+     */
+    static PictureBuffer acquire(final int expectedSize) {
+        final PictureBuffer buffer = POOLED_BUFFERS.get();
+        buffer.size = 0;
+        buffer.ensureCapacity(expectedSize);
+        return buffer;
+    }
+
+    void release() {
+        this.size = 0;
+        if (this.data.length > MAX_RETAINED_SIZE) {
+            this.data = new byte[INITIAL_SIZE];
+        }
+    }
+
+    byte[] getData() {
+        return this.data;
+    }
+
+    int getSize() {
+        return this.size;
+    }
+
+    EncodedPicture toEncodedPicture() {
+        return new EncodedPicture(Arrays.copyOf(this.data, this.size));
+    }
+
+    @Override
+    public void write(final int value) {
+        this.ensureCapacity(this.size + 1);
+        this.data[this.size++] = (byte) value;
+    }
+
+    @Override
+    public void write(final byte[] source, final int offset, final int length) {
+        this.ensureCapacity(this.size + length);
+        System.arraycopy(source, offset, this.data, this.size, length);
+        this.size += length;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > this.data.length) {
+            this.data = Arrays.copyOf(this.data, Math.max(capacity, this.data.length * 2));
+        }
+    }
+}
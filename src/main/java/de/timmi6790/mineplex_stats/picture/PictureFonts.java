@@ -0,0 +1,51 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import de.timmi6790.discord_framework.DiscordBot;
+import lombok.experimental.UtilityClass;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fonts of our pictures, loaded from the bundled font file instead of the fonts installed on the host.
+ * This keeps the text measurements identical on every node and avoids the font lookup on first use.
+ */
+@UtilityClass
+public class PictureFonts {
+    private static final String FONT_RESOURCE = "/fonts/DejaVuSans.ttf";
+    // Only used if the bundled font can't be loaded
+    private static final String FALLBACK_FONT_NAME = "Arial";
+
+    private static final Font BASE_FONT = loadBaseFont();
+
+    public static final Font HEADER = BASE_FONT.deriveFont(Font.PLAIN, 42F);
+    public static final Font SUB_HEADER = BASE_FONT.deriveFont(Font.PLAIN, 33F);
+    public static final Font LEADERBOARD_HEADER = BASE_FONT.deriveFont(Font.PLAIN, 38F);
+    public static final Font LEADERBOARD = BASE_FONT.deriveFont(Font.PLAIN, 30F);
+
+    private Font loadBaseFont() {
+        try (final InputStream inputStream = PictureFonts.class.getResourceAsStream(FONT_RESOURCE)) {
+            if (inputStream == null) {
+                throw new IOException("Missing font resource " + FONT_RESOURCE);
+            }
+
+            final Font font = Font.createFont(Font.TRUETYPE_FONT, inputStream);
+            GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+            return font;
+        } catch (final IOException | FontFormatException e) {
+            DiscordBot.getLogger().warn(e, "Can't load the bundled picture font, falling back to " + FALLBACK_FONT_NAME);
+            return new Font(FALLBACK_FONT_NAME, Font.PLAIN, 1);
+        }
+    }
+
+    /**
+     * Creates the font metrics and glyph atlases of all picture fonts, so that the first picture is not slower than the others.
+     */
+    public void warmUp() {
+        for (final Font font : new Font[]{HEADER, SUB_HEADER, LEADERBOARD_HEADER, LEADERBOARD}) {
+            TextMeasurer.getFontMetrics(font);
+            GlyphAtlas.warmUp(font);
+        }
+    }
+}
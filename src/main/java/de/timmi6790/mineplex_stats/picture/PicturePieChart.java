@@ -0,0 +1,145 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.graphics.DrawingContext;
+import de.erichseifert.gral.graphics.Insets2D;
+import de.erichseifert.gral.plots.PiePlot;
+import de.erichseifert.gral.plots.colors.IndexedColors;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pie chart with a title and a legend on the right side. The slices are drawn by GRAL, the texts with our picture fonts.
+ */
+@ToString
+@EqualsAndHashCode(callSuper = true)
+public class PicturePieChart extends AbstractPicture {
+    private static final Font FONT_TITLE = PictureFonts.HEADER;
+    private static final Font FONT_LEGEND = PictureFonts.LEADERBOARD;
+
+    // Red, yellow green, green, blue, purple
+    private static final Color[] SLICE_COLOURS = {
+            new Color(0xFF0000),
+            new Color(0xADFF2F),
+            new Color(0x00FF00),
+            new Color(0x0000FF),
+            new Color(0xA020F0)
+    };
+
+    private static final int PIE_SIZE = 400;
+    private static final int GAP_X_BORDER = 10;
+    private static final int GAP_Y_ROW = 15;
+    private static final int LEGEND_BOX_SIZE = 20;
+
+    // Encoded pictures by chart content. Identical charts share one render, even while it is still in progress
+    private static final AsyncCache<PieChartKey, EncodedPicture> PICTURE_CACHE = Caffeine.newBuilder()
+            .maximumWeight(16L * 1024 * 1024)
+            .<PieChartKey, EncodedPicture>weigher((key, picture) -> picture.getSize())
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .buildAsync();
+
+    private final String title;
+    private final String[] labels;
+    private final long[] values;
+
+    public PicturePieChart(@NonNull final String title, @NonNull final String[] labels, @NonNull final long[] values) {
+        if (labels.length != values.length) {
+            throw new IllegalArgumentException("Every slice requires one label");
+        }
+
+        this.title = title;
+        this.labels = labels.clone();
+        this.values = values.clone();
+    }
+
+    @Override
+    public EncodedPicture getPicture() {
+        final PieChartKey pieChartKey = new PieChartKey(this.title, this.labels, this.values);
+        return getOrRenderPicture(PICTURE_CACHE, pieChartKey, this::renderPicture);
+    }
+
+    private EncodedPicture renderPicture() {
+        final int titleWidth = getTextWidth(this.title, FONT_TITLE);
+        int legendTextWidth = 0;
+        for (final String label : this.labels) {
+            legendTextWidth = Math.max(legendTextWidth, getTextWidth(label, FONT_LEGEND));
+        }
+
+        final int pieY = FONT_TITLE.getSize() + GAP_Y_ROW * 2;
+        final int legendX = GAP_X_BORDER * 3 + PIE_SIZE;
+        final int legendTextX = legendX + LEGEND_BOX_SIZE + GAP_X_BORDER;
+        final int legendHeight = Math.max(0, this.labels.length * (FONT_LEGEND.getSize() + GAP_Y_ROW) - GAP_Y_ROW);
+        // The legend is vertically centered next to the pie
+        final int legendY = pieY + Math.max(0, (PIE_SIZE - legendHeight) / 2);
+
+        final int width = Math.max(legendTextX + legendTextWidth, titleWidth + GAP_X_BORDER) + GAP_X_BORDER;
+        final int height = pieY + Math.max(PIE_SIZE, legendHeight) + GAP_Y_ROW;
+
+        try (final ImagePool.PooledImage pooledImage = ImagePool.acquire(width, height)) {
+            final BufferedImage image = pooledImage.getImage();
+            final Graphics2D gd = getDiscordGraphics(image);
+
+            // Title
+            gd.setFont(FONT_TITLE);
+            gd.drawString(this.title, (width - titleWidth) / 2, FONT_TITLE.getSize());
+
+            // Pie, GRAL can't draw a chart without any value
+            if (Arrays.stream(this.values).anyMatch(value -> value > 0)) {
+                final PiePlot plot = this.createPlot();
+                plot.setBounds(GAP_X_BORDER, pieY, PIE_SIZE, PIE_SIZE);
+                plot.draw(new DrawingContext(gd));
+            }
+
+            // Legend
+            gd.setFont(FONT_LEGEND);
+            for (int index = 0; this.labels.length > index; index++) {
+                final int y = legendY + index * (FONT_LEGEND.getSize() + GAP_Y_ROW) + FONT_LEGEND.getSize();
+
+                gd.setPaint(getSliceColour(index));
+                gd.fillRect(legendX, y - LEGEND_BOX_SIZE, LEGEND_BOX_SIZE, LEGEND_BOX_SIZE);
+                gd.setPaint(Color.WHITE);
+                gd.drawString(this.labels[index], legendTextX, y);
+            }
+
+            gd.dispose();
+            return convertToPicture(image);
+        }
+    }
+
+    private PiePlot createPlot() {
+        final DataTable data = new DataTable(Long.class);
+        for (final long value : this.values) {
+            data.add(value);
+        }
+
+        final PiePlot plot = new PiePlot(data);
+        plot.setBackground(COLOUR_DISCORD_DARK_MODE);
+        plot.setBorderStroke(null);
+        plot.setLegendVisible(false);
+        plot.setInsets(new Insets2D.Double(0, 0, 0, 0));
+
+        final PiePlot.PieSliceRenderer sliceRenderer = (PiePlot.PieSliceRenderer) plot.getPointRenderer(data);
+        sliceRenderer.setColor(new IndexedColors(SLICE_COLOURS[0], Arrays.copyOfRange(SLICE_COLOURS, 1, SLICE_COLOURS.length)));
+        return plot;
+    }
+
+    private static Color getSliceColour(final int index) {
+        return SLICE_COLOURS[index % SLICE_COLOURS.length];
+    }
+
+    @Data
+    private static class PieChartKey {
+        private final String title;
+        private final String[] labels;
+        private final long[] values;
+    }
+}
@@ -1,22 +1,31 @@
 package de.timmi6790.mineplex_stats.picture;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.timmi6790.minecraft.utilities.PlayerSkin;
+import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 @ToString
 @EqualsAndHashCode(callSuper = true)
 public class PictureTable extends AbstractPicture {
-    private static final String ARIAL = "Arial";
-    private static final Font FONT_HEADER = new Font(ARIAL, Font.PLAIN, 42);
-    private static final Font FONT_SUB_HEADER = new Font(ARIAL, Font.PLAIN, 33);
+    private static final Font FONT_HEADER = PictureFonts.HEADER;
+    private static final Font FONT_SUB_HEADER = PictureFonts.SUB_HEADER;
 
-    private static final Font FONT_LEADERBOARD_HEADER = new Font(ARIAL, Font.PLAIN, 38);
-    private static final Font FONT_LEADERBOARD = new Font(ARIAL, Font.PLAIN, 30);
+    private static final Font FONT_LEADERBOARD_HEADER = PictureFonts.LEADERBOARD_HEADER;
+    private static final Font FONT_LEADERBOARD = PictureFonts.LEADERBOARD;
 
     private static final int GAP_X_BORDER = 10;
     private static final int GAP_Y_ROW = 15;
@@ -26,13 +35,45 @@ public class PictureTable extends AbstractPicture {
     private static final int GAP_SUB_HEADER = (int) (GAP_Y_ROW * 2.3);
     private static final int GAP_LEADERBOARD_HEADER = GAP_Y_ROW * 2;
 
+    // Skins are scaled down to the leaderboard height, but stay readable next to short leaderboards
+    private static final int MIN_SKIN_HEIGHT = FONT_LEADERBOARD.getSize() * 6 + GAP_Y_ROW * 5;
+
+    // Player heads in front of the leaderboard rows
+    private static final int ROW_ICON_SIZE = FONT_LEADERBOARD.getSize();
+    private static final Color COLOUR_ROW_ICON_PLACEHOLDER = new Color(79, 84, 92);
+
+    // Encoded pictures by table content. Identical tables share one render, even while it is still in progress
+    private static final AsyncCache<PictureKey, EncodedPicture> PICTURE_CACHE = Caffeine.newBuilder()
+            .maximumWeight(64L * 1024 * 1024)
+            .<PictureKey, EncodedPicture>weigher((key, picture) -> picture.getSize())
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .buildAsync();
+    // Encoded parts of split tables, shared like the complete pictures
+    private static final AsyncCache<SplitPictureKey, List<EncodedPicture>> SPLIT_PICTURE_CACHE = Caffeine.newBuilder()
+            .maximumWeight(64L * 1024 * 1024)
+            .<SplitPictureKey, List<EncodedPicture>>weigher((key, parts) -> parts.stream().mapToInt(EncodedPicture::getSize).sum())
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .buildAsync();
+    // Pre-rendered background, header and leaderboard header by layout. They are only read after creation
+    private static final Cache<TemplateKey, BufferedImage> TEMPLATE_CACHE = Caffeine.newBuilder()
+            .maximumWeight(32L * 1024 * 1024)
+            .<TemplateKey, BufferedImage>weigher((key, template) -> template.getWidth() * template.getHeight() * 4)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
     private final String[] header;
     private final String[][] leaderboard;
     private final String date;
 
-    private final BufferedImage skin;
+    private final PlayerSkin playerSkin;
+    private BufferedImage skin;
+    @Setter
+    private int rowsPerPicture = 0;
+    // One icon per leaderboard row, without the leaderboard header. Missing icons are drawn as placeholder
+    private BufferedImage[] rowIcons;
     private final int[] widthHeader;
     private final int[] widthLeaderboard;
+    private int leaderboardX = GAP_X_BORDER;
     private int skinX = 0;
     private int skinY = 0;
     private int maxWidth = 0;
@@ -40,8 +81,10 @@ public class PictureTable extends AbstractPicture {
     private int widthHeaderMax = 0;
     private int widthDateMax = 0;
     private int widthLeaderboardMax = 0;
-    private int currentHeightY = FONT_HEADER.getSize();
-    private Graphics2D gd = null;
+    private int dateY = 0;
+    private int leaderboardHeaderY = 0;
+    private int leaderboardY = 0;
+    private int templateHeight = 0;
 
     public PictureTable(final String[] header,
                         final String date,
@@ -52,7 +95,7 @@ public class PictureTable extends AbstractPicture {
     public PictureTable(final String[] header,
                         final String date,
                         final String[][] leaderboard,
-                        final BufferedImage skin) {
+                        final PlayerSkin playerSkin) {
         this.header = header.clone();
         this.leaderboard = leaderboard.clone();
         this.date = date;
@@ -60,86 +103,227 @@ public class PictureTable extends AbstractPicture {
         this.widthHeader = new int[this.header.length];
         this.widthLeaderboard = new int[this.leaderboard[0].length];
 
-        this.skin = skin;
+        this.playerSkin = playerSkin;
     }
 
-    private void drawRow(final String[] dataArray,
+    public void setRowIcons(final BufferedImage[] rowIcons) {
+        if (rowIcons != null && rowIcons.length != this.leaderboard.length - 1) {
+            throw new IllegalArgumentException("Every leaderboard row requires one icon");
+        }
+
+        this.rowIcons = rowIcons == null ? null : rowIcons.clone();
+    }
+
+    private void drawRow(final BufferedImage image,
+                         final Graphics2D gd,
+                         final String[] dataArray,
                          final int[] widthArray,
                          final Font font,
+                         final int startX,
                          final int increaseX,
-                         final int rowHeight) {
-        this.gd.setFont(font);
-        for (int index = 0, xPos = GAP_X_BORDER;
+                         final int y) {
+        for (int index = 0, xPos = startX;
              dataArray.length > index;
              xPos += widthArray[index] + increaseX, index++) {
-            this.gd.drawString(dataArray[index], xPos, this.currentHeightY);
+            this.drawText(image, gd, dataArray[index], font, xPos, y);
+        }
+    }
+
+    private void drawText(final BufferedImage image,
+                          final Graphics2D gd,
+                          final String text,
+                          final Font font,
+                          final int x,
+                          final int y) {
+        // All texts are white and never overlap, they can be drawn from the glyph atlas
+        if (!GlyphAtlas.drawString(image, text, font, x, y)) {
+            gd.setFont(font);
+            gd.drawString(text, x, y);
+        }
+    }
+
+    @Override
+    public EncodedPicture getPicture() {
+        return getOrRenderPicture(PICTURE_CACHE, this.getPictureKey(), this::renderPicture);
+    }
+
+    private PictureKey getPictureKey() {
+        return new PictureKey(this.header, this.date, this.leaderboard, this.playerSkin, this.rowIcons);
+    }
+
+    /**
+     * Returns the table split into pictures of at most rowsPerPicture leaderboard rows, if set.
+     * All parts share one layout and are rendered in parallel, placed below each other they show the complete table.
+     */
+    @Override
+    public List<EncodedPicture> getPictures() {
+        if (this.rowsPerPicture <= 0 || this.rowsPerPicture >= this.leaderboard.length - 1) {
+            return super.getPictures();
         }
-        this.currentHeightY += rowHeight;
+
+        final SplitPictureKey splitPictureKey = new SplitPictureKey(this.getPictureKey(), this.rowsPerPicture);
+        final List<EncodedPicture> parts = getOrRenderPicture(SPLIT_PICTURE_CACHE, splitPictureKey, this::renderParts);
+        // A part that can't be encoded fails the complete table
+        return parts == null ? Collections.singletonList(null) : parts;
     }
 
-    public InputStream getPlayerPicture() {
+    private List<EncodedPicture> renderParts() {
         this.calculateImageDimension();
+        final BufferedImage template = TEMPLATE_CACHE.get(this.getTemplateKey(), key -> this.createTemplate());
+
+        final List<Callable<EncodedPicture>> parts = new ArrayList<>();
+        int top = 0;
+        for (int fromRow = 1; this.leaderboard.length > fromRow; fromRow += this.rowsPerPicture) {
+            final int partFromRow = fromRow;
+            final int partToRow = Math.min(this.leaderboard.length, fromRow + this.rowsPerPicture);
+            final int partTop = top;
+            final int partBottom = partToRow == this.leaderboard.length ? this.maxHeight : this.getRowY(partToRow - 1) + GAP_Y_ROW;
+            parts.add(() -> this.renderPart(template, partFromRow, partToRow, partTop, partBottom));
+            top = partBottom;
+        }
+
+        final List<EncodedPicture> encodedParts = PictureWorkers.invokeAll(parts);
+        return encodedParts.contains(null) ? null : Collections.unmodifiableList(encodedParts);
+    }
+
+    private EncodedPicture renderPicture() {
+        this.calculateImageDimension();
+
+        final BufferedImage template = TEMPLATE_CACHE.get(this.getTemplateKey(), key -> this.createTemplate());
+        return this.renderPart(template, 1, this.leaderboard.length, 0, this.maxHeight);
+    }
 
-        final BufferedImage image = new BufferedImage(this.maxWidth, this.maxHeight, BufferedImage.TYPE_4BYTE_ABGR);
-        this.gd = getDiscordGraphics(image);
+    /**
+     * Renders the horizontal slice from top to bottom of the table, which contains the leaderboard rows fromRow to toRow.
+     */
+    private EncodedPicture renderPart(final BufferedImage template,
+                                      final int fromRow,
+                                      final int toRow,
+                                      final int top,
+                                      final int bottom) {
+        try (final ImagePool.PooledImage pooledImage = ImagePool.acquire(this.maxWidth, bottom - top)) {
+            final BufferedImage image = pooledImage.getImage();
+            final Graphics2D gd = getDiscordGraphics(image);
+
+            if (top == 0) {
+                image.getRaster().setDataElements(0, 0, template.getRaster());
+
+                // Sub header
+                this.drawText(
+                        image,
+                        gd,
+                        this.date,
+                        FONT_SUB_HEADER,
+                        GAP_X_BORDER + (Math.max(this.widthDateMax, this.widthLeaderboardMax) - getTextWidth(this.date, FONT_SUB_HEADER)) / 2,
+                        this.dateY
+                );
+            }
+
+            // Leaderboard
+            for (int columnIndex = fromRow; toRow > columnIndex; columnIndex++) {
+                this.drawRow(
+                        image,
+                        gd,
+                        this.leaderboard[columnIndex],
+                        this.widthLeaderboard,
+                        FONT_LEADERBOARD,
+                        this.leaderboardX,
+                        GAP_WORD_MIN,
+                        this.getRowY(columnIndex) - top
+                );
+            }
+
+            // Row icons
+            if (this.rowIcons != null) {
+                for (int columnIndex = fromRow; toRow > columnIndex; columnIndex++) {
+                    this.drawRowIcon(gd, this.rowIcons[columnIndex - 1], this.getRowY(columnIndex) - top);
+                }
+            }
+
+            // Skin
+            if (this.skin != null) {
+                gd.drawImage(this.skin, this.skinX, this.skinY - top, null);
+            }
+
+            gd.dispose();
+            return convertToPicture(image);
+        }
+    }
+
+    private void drawRowIcon(final Graphics2D gd, final BufferedImage icon, final int rowY) {
+        // Vertically centered on the text
+        final FontMetrics fontMetrics = TextMeasurer.getFontMetrics(FONT_LEADERBOARD);
+        final int iconY = rowY + (fontMetrics.getDescent() - fontMetrics.getAscent() - ROW_ICON_SIZE) / 2;
+        if (icon == null) {
+            gd.setPaint(COLOUR_ROW_ICON_PLACEHOLDER);
+            gd.fillRect(GAP_X_BORDER, iconY, ROW_ICON_SIZE, ROW_ICON_SIZE);
+            gd.setPaint(Color.WHITE);
+        } else {
+            gd.drawImage(icon, GAP_X_BORDER, iconY, ROW_ICON_SIZE, ROW_ICON_SIZE, null);
+        }
+    }
+
+    private int getRowY(final int rowIndex) {
+        return this.leaderboardY + (rowIndex - 1) * (FONT_LEADERBOARD.getSize() + GAP_Y_ROW);
+    }
+
+    /**
+     * Renders the parts that only depend on the layout, the header and the leaderboard header.
+     */
+    private BufferedImage createTemplate() {
+        final BufferedImage template = new BufferedImage(this.maxWidth, this.templateHeight, BufferedImage.TYPE_4BYTE_ABGR);
+        final Graphics2D gd = getDiscordGraphics(template);
 
         // Header, center if only one entry
         if (this.header.length <= 1) {
-            this.gd.setFont(FONT_HEADER);
-            this.gd.drawString(
+            this.drawText(
+                    template,
+                    gd,
                     this.header[0],
+                    FONT_HEADER,
                     GAP_X_BORDER + (Math.max(this.widthDateMax, this.widthLeaderboardMax) - getTextWidth(this.header[0], FONT_HEADER)) / 2,
-                    this.currentHeightY
+                    FONT_HEADER.getSize()
             );
-            this.currentHeightY += GAP_HEADER + FONT_HEADER.getSize();
-
         } else {
             final int distanceWord = Math.max(((Math.max(this.widthHeaderMax, this.widthLeaderboardMax) - Arrays.stream(this.widthHeader).sum()) / (this.header.length - 1)), GAP_WORD_MIN);
             this.drawRow(
+                    template,
+                    gd,
                     this.header,
                     this.widthHeader,
                     FONT_HEADER,
+                    GAP_X_BORDER,
                     distanceWord,
-                    GAP_HEADER + FONT_SUB_HEADER.getSize()
+                    FONT_HEADER.getSize()
             );
         }
 
-        // Sub header
-        this.gd.setFont(FONT_SUB_HEADER);
-        this.gd.drawString(
-                this.date,
-                GAP_X_BORDER + (Math.max(this.widthDateMax, this.widthLeaderboardMax) - getTextWidth(this.date, FONT_SUB_HEADER)) / 2,
-                this.currentHeightY
-        );
-        this.currentHeightY += GAP_SUB_HEADER + FONT_LEADERBOARD_HEADER.getSize();
-
         // Leaderboard header centered above leaderboard data
         this.drawRow(
+                template,
+                gd,
                 this.leaderboard[0],
                 this.widthLeaderboard,
                 FONT_LEADERBOARD_HEADER,
+                this.leaderboardX,
                 GAP_WORD_MIN,
-                GAP_LEADERBOARD_HEADER + FONT_LEADERBOARD.getSize()
+                this.leaderboardHeaderY
         );
 
-        // Leaderboard
-        for (int columnIndex = 1; this.leaderboard.length > columnIndex; columnIndex++) {
-            this.drawRow(
-                    this.leaderboard[columnIndex],
-                    this.widthLeaderboard,
-                    FONT_LEADERBOARD,
-                    GAP_WORD_MIN,
-                    FONT_LEADERBOARD.getSize() + GAP_Y_ROW
-            );
-        }
-
-        // Skin
-        if (this.skin != null) {
-            this.gd.drawImage(this.skin, this.skinX, this.skinY, null);
-        }
+        gd.dispose();
+        return template;
+    }
 
-        this.gd.dispose();
-        return convertToInputStream(image);
+    private TemplateKey getTemplateKey() {
+        return new TemplateKey(
+                this.header,
+                this.leaderboard[0],
+                this.widthLeaderboard,
+                this.leaderboardX,
+                this.maxWidth,
+                this.templateHeight,
+                Math.max(this.widthDateMax, this.widthLeaderboardMax)
+        );
     }
 
     private void calculateImageDimension() {
@@ -163,6 +347,10 @@ public class PictureTable extends AbstractPicture {
         this.widthHeaderMax = Arrays.stream(this.widthHeader).sum() + GAP_WORD_MIN * (this.widthHeader.length - 1);
         this.widthDateMax = getTextWidth(this.date, FONT_SUB_HEADER) + GAP_WORD_MIN;
         this.widthLeaderboardMax = Arrays.stream(this.widthLeaderboard).sum() + GAP_WORD_MIN * (this.widthLeaderboard.length - 1);
+        if (this.rowIcons != null) {
+            this.leaderboardX = GAP_X_BORDER + ROW_ICON_SIZE + GAP_WORD_MIN / 2;
+            this.widthLeaderboardMax += this.leaderboardX - GAP_X_BORDER;
+        }
 
         int widthMax = this.widthLeaderboardMax;
 
@@ -173,10 +361,10 @@ public class PictureTable extends AbstractPicture {
         int heightLeaderboard = (this.leaderboard.length - 1) * FONT_LEADERBOARD.getSize() + (this.leaderboard.length - 2) * GAP_Y_ROW;
 
         // If a skin is found, we place it directly next to the leaderboard
-        if (this.skin != null) {
-            this.skinX = this.widthLeaderboardMax;
-            // TODO: Do a proper fix for this. The skins picture width is too big.
-            widthMax += this.skin.getWidth() - GAP_X_BORDER * 3;
+        if (this.playerSkin != null) {
+            this.skin = this.playerSkin.getImage(Math.max(heightLeaderboard, MIN_SKIN_HEIGHT));
+            this.skinX = GAP_X_BORDER + this.widthLeaderboardMax + GAP_WORD_MIN;
+            widthMax += GAP_WORD_MIN + this.skin.getWidth();
 
             this.skinY = heightHeader + heightSubHeader + heightLeaderboardHeader + 2;
             if (this.skin.getHeight() > heightLeaderboard) {
@@ -186,5 +374,46 @@ public class PictureTable extends AbstractPicture {
 
         this.maxWidth = Math.max(Math.max(this.widthHeaderMax, this.widthDateMax), widthMax) + GAP_X_BORDER * 2;
         this.maxHeight = heightHeader + heightSubHeader + heightLeaderboardHeader + heightLeaderboard;
+
+        // Baselines
+        this.dateY = FONT_HEADER.getSize() + GAP_HEADER + (this.header.length <= 1 ? FONT_HEADER.getSize() : FONT_SUB_HEADER.getSize());
+        this.leaderboardHeaderY = this.dateY + GAP_SUB_HEADER + FONT_LEADERBOARD_HEADER.getSize();
+        this.leaderboardY = this.leaderboardHeaderY + GAP_LEADERBOARD_HEADER + FONT_LEADERBOARD.getSize();
+        // The template ends above the first leaderboard row
+        this.templateHeight = Math.min(this.maxHeight, this.leaderboardY - FONT_LEADERBOARD.getSize());
+    }
+
+    /**
+     * Identifies the static parts of a table. The header widths follow from the header and the remaining
+     * positions from the leaderboard widths and position, the size and the centered width.
+     */
+    @Data
+    private static class TemplateKey {
+        private final String[] header;
+        private final String[] leaderboardHeader;
+        private final int[] widthLeaderboard;
+        private final int leaderboardX;
+        private final int width;
+        private final int height;
+        private final int centeredWidth;
+    }
+
+    /**
+     * Identifies a table by its content. The skin and row icons are compared by identity, the caches return the same
+     * instance for the same player.
+     */
+    @Data
+    private static class PictureKey {
+        private final String[] header;
+        private final String date;
+        private final String[][] leaderboard;
+        private final PlayerSkin skin;
+        private final BufferedImage[] rowIcons;
+    }
+
+    @Data
+    private static class SplitPictureKey {
+        private final PictureKey pictureKey;
+        private final int rowsPerPicture;
     }
 }
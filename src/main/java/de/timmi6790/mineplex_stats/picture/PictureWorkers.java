@@ -0,0 +1,79 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs the parallel steps of a single render, like table parts and png blocks, on the worker pool of the {@link RenderExecutor}.
+ * The calling thread runs every task that no worker started yet itself. It only waits for tasks that are already running,
+ * which keeps nested tasks free of deadlocks and a saturated pool from slowing the render down.
+ */
+@UtilityClass
+class PictureWorkers {
+    private static final Executor CALLING_THREAD_EXECUTOR = Runnable::run;
+
+    // Without a render executor, all tasks run on the calling thread
+    private volatile Executor executor = CALLING_THREAD_EXECUTOR;
+
+    void setExecutor(@NonNull final Executor executor) {
+        PictureWorkers.executor = executor;
+    }
+
+    /**
+     * Runs all tasks on the calling thread again, unless another executor replaced the given one.
+     */
+    void resetExecutor(@NonNull final Executor executor) {
+        if (PictureWorkers.executor == executor) {
+            PictureWorkers.executor = CALLING_THREAD_EXECUTOR;
+        }
+    }
+
+    <T> List<T> invokeAll(@NonNull final List<Callable<T>> tasks) {
+        final List<FutureTask<T>> futureTasks = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futureTasks.add(new FutureTask<>(task));
+        }
+
+        final Executor currentExecutor = executor;
+        // The first task is always run by the calling thread
+        for (int index = 1; futureTasks.size() > index; index++) {
+            try {
+                currentExecutor.execute(futureTasks.get(index));
+            } catch (final RejectedExecutionException ignore) {
+                // Run below by the calling thread
+            }
+        }
+
+        // Running an already started or finished task does nothing
+        for (final FutureTask<T> futureTask : futureTasks) {
+            futureTask.run();
+        }
+
+        final List<T> results = new ArrayList<>(futureTasks.size());
+        for (final FutureTask<T> futureTask : futureTasks) {
+            results.add(getResult(futureTask));
+        }
+        return results;
+    }
+
+    private <T> T getResult(final FutureTask<T> futureTask) {
+        try {
+            return futureTask.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderBusyException("Interrupted while waiting for the picture");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
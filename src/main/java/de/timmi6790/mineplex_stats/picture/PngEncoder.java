@@ -0,0 +1,481 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Png encoder for the rendered pictures.
+ * Pictures with at most 256 colours, which are most of our tables, are written losslessly as 8 bit palette images.
+ * All other pictures are written as rgb, or rgba if they contain transparency.
+ * <p>
+ * Large pictures are filtered and compressed in parallel. The image data is split into blocks that are deflated
+ * independently, each primed with the previous 32KB as dictionary, and joined into one zlib stream.
+ */
+@UtilityClass
+public class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final byte[] CHUNK_IHDR = "IHDR".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHUNK_PLTE = "PLTE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHUNK_TRNS = "tRNS".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHUNK_IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHUNK_IEND = "IEND".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int COLOUR_TYPE_RGB = 2;
+    private static final int COLOUR_TYPE_INDEXED = 3;
+    private static final int COLOUR_TYPE_RGBA = 6;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+    private static final int FILTER_COUNT = 5;
+
+    private static final int MAX_PALETTE_SIZE = 256;
+    // Power of two, large enough to keep the probe sequences short for a full palette
+    private static final int PALETTE_TABLE_SIZE = 1024;
+
+    private static final int COMPRESSION_LEVEL = 6;
+    // Zlib header for deflate with a 32KB window and the default compression level
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+    private static final int ADLER_BASE = 65521;
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+
+    private static final int PARALLEL_THRESHOLD = 1024 * 1024;
+    private static final int PARALLEL_BLOCK_SIZE = 256 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    public void encode(@NonNull final BufferedImage image, @NonNull final OutputStream outputStream) throws IOException {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixels = readPixels(image);
+
+        final DataOutputStream out = new DataOutputStream(outputStream);
+        out.write(SIGNATURE);
+
+        // Filters only help with continuous tones, palette indices compress best unfiltered.
+        // The indices are written directly into the filtered layout, every row starts with the filter type 0
+        final byte[] indexedData = new byte[height * (width + 1)];
+        final int[] palette = createPalette(pixels, width, indexedData);
+        final byte[] filteredData;
+        final int strategy;
+        if (palette != null) {
+            writeHeader(out, width, height, COLOUR_TYPE_INDEXED);
+            writePalette(out, palette);
+
+            filteredData = indexedData;
+            strategy = Deflater.DEFAULT_STRATEGY;
+        } else {
+            final int bytesPerPixel = isOpaque(pixels) ? 3 : 4;
+            writeHeader(out, width, height, bytesPerPixel == 3 ? COLOUR_TYPE_RGB : COLOUR_TYPE_RGBA);
+
+            filteredData = new byte[height * (width * bytesPerPixel + 1)];
+            if (PARALLEL_THRESHOLD > filteredData.length) {
+                filterTrueColour(pixels, width, bytesPerPixel, 0, height, filteredData);
+            } else {
+                filterTrueColourParallel(pixels, width, height, bytesPerPixel, filteredData);
+            }
+            strategy = Deflater.FILTERED;
+        }
+
+        writeImageData(out, filteredData, strategy);
+        writeChunk(out, CHUNK_IEND, new byte[0], 0, 0);
+        out.flush();
+    }
+
+    /**
+     * Returns the pixels as argb values. Pictures rendered by us are read directly from the raster,
+     * which is considerably faster than going through the colour model for every pixel.
+     */
+    private int[] readPixels(final BufferedImage image) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final WritableRaster raster = image.getRaster();
+        if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR
+                || !(raster.getDataBuffer() instanceof DataBufferByte)
+                || !(raster.getSampleModel() instanceof PixelInterleavedSampleModel)) {
+            return image.getRGB(0, 0, width, height, null, 0, width);
+        }
+
+        final byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+        final int scanlineStride = ((PixelInterleavedSampleModel) raster.getSampleModel()).getScanlineStride();
+        // Sub images share the data of their parent and are only shifted by the translation
+        final int startPosition = -raster.getSampleModelTranslateY() * scanlineStride - raster.getSampleModelTranslateX() * 4;
+
+        final int[] pixels = new int[width * height];
+        for (int row = 0; height > row; row++) {
+            int position = startPosition + row * scanlineStride;
+            final int offset = row * width;
+            for (int column = 0; width > column; column++) {
+                pixels[offset + column] = (data[position] & 0xFF) << 24
+                        | (data[position + 3] & 0xFF) << 16
+                        | (data[position + 2] & 0xFF) << 8
+                        | (data[position + 1] & 0xFF);
+                position += 4;
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Collects the colours of the picture and writes the palette index of every pixel into the indexed data,
+     * behind the filter type byte of each row.
+     *
+     * @return the palette or null if the picture has more than 256 colours
+     */
+    private int[] createPalette(final int[] pixels, final int width, final byte[] indexedData) {
+        final int[] table = new int[PALETTE_TABLE_SIZE];
+        final int[] palette = new int[MAX_PALETTE_SIZE];
+        int paletteSize = 0;
+
+        int lastPixel = 0;
+        int lastIndex = -1;
+        for (int index = 0; pixels.length > index; index++) {
+            final int pixel = pixels[index];
+            if (pixel != lastPixel || lastIndex == -1) {
+                // Table entries are the palette index + 1, 0 marks an empty slot
+                int slot = (pixel * 0x9E3779B9) >>> 22;
+                while (table[slot] != 0 && palette[table[slot] - 1] != pixel) {
+                    slot = (slot + 1) & (PALETTE_TABLE_SIZE - 1);
+                }
+
+                if (table[slot] == 0) {
+                    if (paletteSize == MAX_PALETTE_SIZE) {
+                        return null;
+                    }
+                    palette[paletteSize] = pixel;
+                    table[slot] = ++paletteSize;
+                }
+
+                lastPixel = pixel;
+                lastIndex = table[slot] - 1;
+            }
+            indexedData[index + index / width + 1] = (byte) lastIndex;
+        }
+
+        return Arrays.copyOf(palette, paletteSize);
+    }
+
+    private boolean isOpaque(final int[] pixels) {
+        for (final int pixel : pixels) {
+            if ((pixel >>> 24) != 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filters the rows from fromRow to toRow with the filter that produces the smallest sum of absolute differences,
+     * the heuristic recommended by the png specification.
+     */
+    private void filterTrueColour(final int[] pixels,
+                                  final int width,
+                                  final int bytesPerPixel,
+                                  final int fromRow,
+                                  final int toRow,
+                                  final byte[] filteredData) {
+        final int rowLength = width * bytesPerPixel;
+        byte[] previousRow = new byte[rowLength];
+        byte[] currentRow = new byte[rowLength];
+        final byte[][] candidates = new byte[FILTER_COUNT][rowLength];
+
+        if (fromRow > 0) {
+            readRow(pixels, width, bytesPerPixel, fromRow - 1, previousRow);
+        }
+
+        for (int row = fromRow; toRow > row; row++) {
+            readRow(pixels, width, bytesPerPixel, row, currentRow);
+
+            int bestFilter = FILTER_NONE;
+            long bestSum = Long.MAX_VALUE;
+            for (int filter = 0; FILTER_COUNT > filter; filter++) {
+                final long sum = applyFilter(filter, currentRow, previousRow, bytesPerPixel, candidates[filter]);
+                if (bestSum > sum) {
+                    bestSum = sum;
+                    bestFilter = filter;
+                }
+            }
+
+            final int position = row * (rowLength + 1);
+            filteredData[position] = (byte) bestFilter;
+            System.arraycopy(candidates[bestFilter], 0, filteredData, position + 1, rowLength);
+
+            final byte[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+    }
+
+    private void filterTrueColourParallel(final int[] pixels,
+                                          final int width,
+                                          final int height,
+                                          final int bytesPerPixel,
+                                          final byte[] filteredData) {
+        final int rowsPerTask = Math.max(1, PARALLEL_BLOCK_SIZE / (width * bytesPerPixel + 1));
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int fromRow = 0; height > fromRow; fromRow += rowsPerTask) {
+            final int taskFromRow = fromRow;
+            final int taskToRow = Math.min(height, fromRow + rowsPerTask);
+            tasks.add(() -> {
+                filterTrueColour(pixels, width, bytesPerPixel, taskFromRow, taskToRow, filteredData);
+                return null;
+            });
+        }
+        PictureWorkers.invokeAll(tasks);
+    }
+
+    private void readRow(final int[] pixels, final int width, final int bytesPerPixel, final int row, final byte[] target) {
+        int position = 0;
+        final int offset = row * width;
+        for (int column = 0; width > column; column++) {
+            final int pixel = pixels[offset + column];
+            target[position++] = (byte) (pixel >> 16);
+            target[position++] = (byte) (pixel >> 8);
+            target[position++] = (byte) pixel;
+            if (bytesPerPixel == 4) {
+                target[position++] = (byte) (pixel >>> 24);
+            }
+        }
+    }
+
+    private long applyFilter(final int filter,
+                             final byte[] currentRow,
+                             final byte[] previousRow,
+                             final int bytesPerPixel,
+                             final byte[] target) {
+        long sum = 0;
+        for (int index = 0; currentRow.length > index; index++) {
+            final int current = currentRow[index] & 0xFF;
+            final int left = index >= bytesPerPixel ? currentRow[index - bytesPerPixel] & 0xFF : 0;
+            final int up = previousRow[index] & 0xFF;
+            final int upLeft = index >= bytesPerPixel ? previousRow[index - bytesPerPixel] & 0xFF : 0;
+
+            final int value;
+            switch (filter) {
+                case FILTER_SUB:
+                    value = current - left;
+                    break;
+                case FILTER_UP:
+                    value = current - up;
+                    break;
+                case FILTER_AVERAGE:
+                    value = current - ((left + up) >> 1);
+                    break;
+                case FILTER_PAETH:
+                    value = current - paethPredictor(left, up, upLeft);
+                    break;
+                default:
+                    value = current;
+                    break;
+            }
+
+            target[index] = (byte) value;
+            sum += Math.abs((byte) value);
+        }
+        return sum;
+    }
+
+    private int paethPredictor(final int left, final int up, final int upLeft) {
+        final int estimate = left + up - upLeft;
+        final int distanceLeft = Math.abs(estimate - left);
+        final int distanceUp = Math.abs(estimate - up);
+        final int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private void writeHeader(final DataOutputStream out, final int width, final int height, final int colourType) throws IOException {
+        final byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8;
+        header[9] = (byte) colourType;
+        // Compression, filter and interlace method are all 0
+        writeChunk(out, CHUNK_IHDR, header, 0, header.length);
+    }
+
+    private void writePalette(final DataOutputStream out, final int[] palette) throws IOException {
+        final byte[] colours = new byte[palette.length * 3];
+        final byte[] alphas = new byte[palette.length];
+        boolean transparent = false;
+        for (int index = 0; palette.length > index; index++) {
+            colours[index * 3] = (byte) (palette[index] >> 16);
+            colours[index * 3 + 1] = (byte) (palette[index] >> 8);
+            colours[index * 3 + 2] = (byte) palette[index];
+            alphas[index] = (byte) (palette[index] >>> 24);
+            transparent |= (palette[index] >>> 24) != 0xFF;
+        }
+
+        writeChunk(out, CHUNK_PLTE, colours, 0, colours.length);
+        if (transparent) {
+            writeChunk(out, CHUNK_TRNS, alphas, 0, alphas.length);
+        }
+    }
+
+    private void writeImageData(final DataOutputStream out, final byte[] filteredData, final int strategy) throws IOException {
+        if (filteredData.length >= PARALLEL_THRESHOLD) {
+            writeImageDataParallel(out, filteredData, strategy);
+            return;
+        }
+
+        final Deflater deflater = new Deflater(COMPRESSION_LEVEL);
+        try {
+            deflater.setStrategy(strategy);
+            deflater.setInput(filteredData);
+            deflater.finish();
+
+            // Every full buffer is directly written as one chunk
+            final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+            int bufferSize = 0;
+            while (!deflater.finished()) {
+                bufferSize += deflater.deflate(buffer, bufferSize, buffer.length - bufferSize);
+                if (bufferSize == buffer.length) {
+                    writeChunk(out, CHUNK_IDAT, buffer, 0, bufferSize);
+                    bufferSize = 0;
+                }
+            }
+            if (bufferSize > 0) {
+                writeChunk(out, CHUNK_IDAT, buffer, 0, bufferSize);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeImageDataParallel(final DataOutputStream out, final byte[] filteredData, final int strategy) throws IOException {
+        final List<Callable<CompressedBlock>> tasks = new ArrayList<>();
+        for (int offset = 0; filteredData.length > offset; offset += PARALLEL_BLOCK_SIZE) {
+            final int blockOffset = offset;
+            final int blockLength = Math.min(PARALLEL_BLOCK_SIZE, filteredData.length - offset);
+            tasks.add(() -> compressBlock(filteredData, blockOffset, blockLength, strategy));
+        }
+
+        // Every block is written as its own chunk, the first one starts with the zlib header
+        long adler = 1;
+        for (final CompressedBlock block : PictureWorkers.invokeAll(tasks)) {
+            writeChunk(out, CHUNK_IDAT, block.getData().getData(), 0, block.getData().getSize());
+            adler = combineAdler32(adler, block.getAdler(), block.getLength());
+        }
+
+        final byte[] trailer = new byte[4];
+        writeInt(trailer, 0, (int) adler);
+        writeChunk(out, CHUNK_IDAT, trailer, 0, trailer.length);
+    }
+
+    /**
+     * Compresses one block into a raw deflate stream. Every block except the last ends with a sync flush,
+     * which ends the stream on a byte boundary without marking it final, so that the blocks can be concatenated.
+     */
+    private CompressedBlock compressBlock(final byte[] data, final int offset, final int length, final int strategy) {
+        final Deflater deflater = new Deflater(COMPRESSION_LEVEL, true);
+        try {
+            final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+
+            // The strategy is only applied on the next deflate call, which has to happen before the dictionary is set.
+            // Applying it afterwards, together with the input, produces references outside of the window
+            deflater.setStrategy(strategy);
+            deflater.deflate(buffer);
+            if (offset > 0) {
+                final int dictionaryLength = Math.min(DICTIONARY_SIZE, offset);
+                deflater.setDictionary(data, offset - dictionaryLength, dictionaryLength);
+            }
+            deflater.setInput(data, offset, length);
+
+            final PictureBuffer compressed = new PictureBuffer(length / 2);
+            if (offset == 0) {
+                compressed.write(ZLIB_HEADER, 0, ZLIB_HEADER.length);
+            }
+            if (offset + length == data.length) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+
+            final Adler32 adler = new Adler32();
+            adler.update(data, offset, length);
+            return new CompressedBlock(compressed, length, adler.getValue());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Combines the adler32 checksums of two consecutive parts, the same way as zlib's adler32_combine.
+     */
+    private long combineAdler32(final long firstAdler, final long secondAdler, final long secondLength) {
+        final long remainder = secondLength % ADLER_BASE;
+        long sum1 = firstAdler & 0xFFFF;
+        long sum2 = (remainder * sum1) % ADLER_BASE;
+        sum1 += (secondAdler & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((firstAdler >>> 16) & 0xFFFF) + ((secondAdler >>> 16) & 0xFFFF) + ADLER_BASE - remainder;
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum2 >= (ADLER_BASE << 1)) {
+            sum2 -= (ADLER_BASE << 1);
+        }
+        if (sum2 >= ADLER_BASE) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    private void writeChunk(final DataOutputStream out,
+                            final byte[] type,
+                            final byte[] data,
+                            final int offset,
+                            final int length) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(data, offset, length);
+
+        out.writeInt(length);
+        out.write(type);
+        out.write(data, offset, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private void writeInt(final byte[] target, final int offset, final int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    @Data
+    private static class CompressedBlock {
+        private final PictureBuffer data;
+        private final int length;
+        private final long adler;
+    }
+}
@@ -0,0 +1,12 @@
+package de.timmi6790.mineplex_stats.picture;
+
+/**
+ * Thrown when a picture can't be rendered in time, because the render queue is full or the picture waited too long.
+ */
+public class RenderBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RenderBusyException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,169 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import de.timmi6790.discord_framework.DiscordBot;
+import lombok.Data;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders and encodes pictures on a dedicated pool, sized to the available cores.
+ * The queue is bounded, a picture that doesn't fit into it or isn't done before the timeout is rejected
+ * with a {@link RenderBusyException} instead of blocking the command threads.
+ * The parallel steps of one picture run on a second bounded worker pool, see {@link PictureWorkers}.
+ */
+public class RenderExecutor {
+    private static final long SLOW_QUEUE_WAIT_MS = 2_000;
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor workerExecutor;
+    private final long renderTimeout;
+
+    private final AtomicLong renderedPictures = new AtomicLong();
+    private final AtomicLong rejectedPictures = new AtomicLong();
+    private final AtomicLong timedOutPictures = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    /**
+     * @param workerThreads threads for the parallel steps of a picture, half of the cores if not positive
+     */
+    public RenderExecutor(final int queueSize, final long renderTimeout, final int workerThreads) {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        this.executor = createExecutor("picture-render-", threads, queueSize);
+        // Rejected worker tasks are run by the rendering thread
+        this.workerExecutor = createExecutor(
+                "picture-worker-",
+                workerThreads > 0 ? workerThreads : Math.max(1, threads / 2),
+                queueSize
+        );
+        this.renderTimeout = renderTimeout;
+
+        PictureWorkers.setExecutor(this.workerExecutor);
+    }
+
+    private static ThreadPoolExecutor createExecutor(final String threadName, final int threads, final int queueSize) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, threadName + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public List<EncodedPicture> render(@NonNull final AbstractPicture picture) {
+        final long queuedAt = System.nanoTime();
+        final Future<List<EncodedPicture>> future;
+        try {
+            future = this.executor.submit(() -> {
+                this.recordQueueWait(System.nanoTime() - queuedAt);
+                return picture.getPictures();
+            });
+        } catch (final RejectedExecutionException e) {
+            this.rejectedPictures.incrementAndGet();
+            throw new RenderBusyException("The render queue is full");
+        }
+
+        try {
+            final List<EncodedPicture> encodedPictures = future.get(this.renderTimeout, TimeUnit.MILLISECONDS);
+            this.renderedPictures.incrementAndGet();
+            return encodedPictures;
+        } catch (final TimeoutException e) {
+            // Only removes it from the queue, an already started render is finished for the picture cache
+            future.cancel(false);
+            this.timedOutPictures.incrementAndGet();
+            throw new RenderBusyException("The picture was not rendered in time");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new RenderBusyException("Interrupted while waiting for the picture");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Renders the picture without waiting for it. The future fails with a {@link RenderBusyException} if the queue is full.
+     */
+    public CompletableFuture<List<EncodedPicture>> renderAsync(@NonNull final AbstractPicture picture) {
+        final long queuedAt = System.nanoTime();
+        final CompletableFuture<List<EncodedPicture>> renderFuture = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> {
+                this.recordQueueWait(System.nanoTime() - queuedAt);
+                try {
+                    renderFuture.complete(picture.getPictures());
+                    this.renderedPictures.incrementAndGet();
+                } catch (final RuntimeException | Error e) {
+                    renderFuture.completeExceptionally(e);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.rejectedPictures.incrementAndGet();
+            renderFuture.completeExceptionally(new RenderBusyException("The render queue is full"));
+        }
+        return renderFuture;
+    }
+
+    /**
+     * Stops accepting pictures. Queued pictures are still rendered, later ones are rejected as busy.
+     */
+    public void shutdown() {
+        PictureWorkers.resetExecutor(this.workerExecutor);
+        this.executor.shutdown();
+        this.workerExecutor.shutdown();
+    }
+
+    private void recordQueueWait(final long waitNanos) {
+        this.totalQueueWaitNanos.addAndGet(waitNanos);
+        this.maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        final long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        if (waitMs >= SLOW_QUEUE_WAIT_MS) {
+            DiscordBot.getLogger().warn("Picture waited {}ms in the render queue, {} pictures are queued", waitMs, this.executor.getQueue().size());
+        }
+    }
+
+    public RenderStatistics getStatistics() {
+        final long startedPictures = this.executor.getCompletedTaskCount() + this.executor.getActiveCount();
+        return new RenderStatistics(
+                this.renderedPictures.get(),
+                this.rejectedPictures.get(),
+                this.timedOutPictures.get(),
+                this.executor.getQueue().size(),
+                startedPictures == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalQueueWaitNanos.get() / startedPictures),
+                TimeUnit.NANOSECONDS.toMillis(this.maxQueueWaitNanos.get()),
+                this.workerExecutor.getActiveCount(),
+                this.workerExecutor.getQueue().size()
+        );
+    }
+
+    @Data
+    public static class RenderStatistics {
+        private final long renderedPictures;
+        private final long rejectedPictures;
+        private final long timedOutPictures;
+        private final int queuedPictures;
+        private final long averageQueueWaitMs;
+        private final long maxQueueWaitMs;
+        private final int activeWorkers;
+        private final int queuedWorkerTasks;
+    }
+}
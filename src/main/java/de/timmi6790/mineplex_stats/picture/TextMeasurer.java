@@ -0,0 +1,74 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe text measurement for the pictures.
+ * The advances of all latin characters are cached per font. Widths of strings that only consist of them,
+ * which covers names and all formatted numbers, are summed up from these advances exactly like
+ * {@link FontMetrics#stringWidth(String)} does it. Other strings are measured by the font metrics and cached.
+ */
+@UtilityClass
+public class TextMeasurer {
+    private static final int CACHED_CHARACTERS = 0x100;
+
+    private static final Map<Font, FontMeasurement> FONT_MEASUREMENTS = new ConcurrentHashMap<>();
+    private static final Cache<TextKey, Integer> TEXT_WIDTH_CACHE = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public int getTextWidth(@NonNull final String text, @NonNull final Font font) {
+        final FontMeasurement measurement = FONT_MEASUREMENTS.computeIfAbsent(font, FontMeasurement::new);
+
+        float width = 0;
+        for (int index = 0; text.length() > index; index++) {
+            final char character = text.charAt(index);
+            if (character >= CACHED_CHARACTERS) {
+                return TEXT_WIDTH_CACHE.get(new TextKey(text, font), key -> measurement.getMetrics().stringWidth(key.getText()));
+            }
+            width += measurement.getAdvances()[character];
+        }
+        return (int) (0.5 + width);
+    }
+
+    public FontMetrics getFontMetrics(@NonNull final Font font) {
+        return FONT_MEASUREMENTS.computeIfAbsent(font, FontMeasurement::new).getMetrics();
+    }
+
+    @Data
+    private static class FontMeasurement {
+        private final FontMetrics metrics;
+        private final float[] advances = new float[CACHED_CHARACTERS];
+
+        FontMeasurement(final Font font) {
+            // Same default render context as the graphics of the pictures
+            final Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_4BYTE_ABGR).createGraphics();
+            try {
+                this.metrics = graphics.getFontMetrics(font);
+            } finally {
+                graphics.dispose();
+            }
+
+            final char[] character = new char[1];
+            for (int index = 0; CACHED_CHARACTERS > index; index++) {
+                character[0] = (char) index;
+                this.advances[index] = (float) font.getStringBounds(character, 0, 1, this.metrics.getFontRenderContext()).getWidth();
+            }
+        }
+    }
+
+    @Data
+    private static class TextKey {
+        private final String text;
+        private final Font font;
+    }
+}
@@ -1,5 +1,7 @@
 package de.timmi6790.mineplex_stats.statsapi;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import de.timmi6790.commons.builders.MapBuilder;
@@ -11,14 +13,16 @@ import de.timmi6790.mineplex_stats.statsapi.models.bedrock.BedrockPlayerStats;
 import de.timmi6790.mineplex_stats.statsapi.models.errors.ErrorModel;
 import de.timmi6790.mineplex_stats.statsapi.models.java.*;
 import kong.unirest.*;
-import kong.unirest.json.JSONObject;
 import lombok.AccessLevel;
+import lombok.Data;
 import lombok.Getter;
 import org.tinylog.TaggedLogger;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class MpStatsRestApiClient {
     private static final String ALIAS = "alias";
@@ -32,8 +36,11 @@ public class MpStatsRestApiClient {
     private static final ErrorModel UNKNOWN_ERROR_RESPONSE_MODEL = new ErrorModel(-1, "Unknown Error");
     private static final ErrorModel TIMEOUT_ERROR_RESPONSE_MODEL = new ErrorModel(-1, "API Timeout Exception");
 
+    // The next snapshot time is unknown, requests for the latest snapshot are only collapsed for this time
+    private static final long LATEST_SNAPSHOT_CONFIRMATION_TIME = TimeUnit.MINUTES.toSeconds(1);
+
     private final Gson gson = new GsonBuilder()
-            .registerTypeAdapter(JavaGamesModel.class, new JavaGamesModelDeserializer())
+            .registerTypeAdapterFactory(new JavaGamesModelDeserializer())
             .create();
 
     @Getter(value = AccessLevel.PRIVATE)
@@ -42,6 +49,16 @@ public class MpStatsRestApiClient {
 
     private final UnirestInstance unirest;
 
+    private final Cache<String, SnapshotTimeline> snapshotTimelines = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+    // Responses by their request with the resolved date
+    private final Cache<SnapshotRequest, ResponseModel> snapshotResponses = Caffeine.newBuilder()
+            .maximumSize(500)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
     public MpStatsRestApiClient(final TaggedLogger logger,
                                 final String authName,
                                 final String authPassword,
@@ -62,19 +79,22 @@ public class MpStatsRestApiClient {
                                       final Map<String, Object> params,
                                       final Class<? extends ResponseModel> objectClass) {
         try {
-            final HttpResponse<JsonNode> response = this.unirest.get(url)
+            final HttpResponse<String> response = this.unirest.get(url)
                     .queryString(params)
-                    .asJson();
+                    .asString();
 
             if (!response.isSuccess()) {
                 return UNKNOWN_ERROR_RESPONSE_MODEL;
             }
 
-            final JSONObject jsonObject = response.getBody().getObject();
-            return this.gson.fromJson(
-                    jsonObject.toString(),
-                    jsonObject.getBoolean("success") ? objectClass : ErrorModel.class
-            );
+            // The body is parsed once, together with its success flag. Only the small error responses are parsed again
+            final String body = response.getBody();
+            final ResponseModel responseModel = this.gson.fromJson(body, objectClass);
+            if (responseModel == null || responseModel.getSuccess() == null) {
+                return UNKNOWN_ERROR_RESPONSE_MODEL;
+            }
+
+            return responseModel.getSuccess() ? responseModel : this.gson.fromJson(body, ErrorModel.class);
         } catch (final UnirestException e) {
             this.logger.error(e);
             return TIMEOUT_ERROR_RESPONSE_MODEL;
@@ -84,6 +104,57 @@ public class MpStatsRestApiClient {
         }
     }
 
+    /**
+     * Requests the snapshot of the date. The date is first resolved to the date of equivalent former requests,
+     * which allows them to share the cached response.
+     */
+    private ResponseModel makeSnapshotRequest(final String timelineKey,
+                                              final String url,
+                                              final Map<String, Object> params,
+                                              final long unixTime,
+                                              final Class<? extends ResponseModel> objectClass) {
+        final long now = Instant.now().getEpochSecond();
+        final SnapshotTimeline timeline = this.snapshotTimelines.get(timelineKey, key -> new SnapshotTimeline());
+        final long resolvedUnixTime = timeline.resolve(unixTime, now, LATEST_SNAPSHOT_CONFIRMATION_TIME);
+
+        final Map<String, Object> requestParams = new HashMap<>(params);
+        requestParams.put(DATE, resolvedUnixTime);
+        final SnapshotRequest snapshotRequest = new SnapshotRequest(url, requestParams);
+        final ResponseModel cachedResponse = this.snapshotResponses.getIfPresent(snapshotRequest);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+
+        final ResponseModel response = this.makeRequest(url, requestParams, objectClass);
+        if (response instanceof ErrorModel) {
+            return response;
+        }
+
+        final long snapshot = this.getSnapshot(response);
+        if (snapshot != -1) {
+            timeline.learn(resolvedUnixTime, snapshot, now);
+        }
+        this.snapshotResponses.put(snapshotRequest, response);
+        return response;
+    }
+
+    private long getSnapshot(final ResponseModel response) {
+        if (response instanceof JavaLeaderboard) {
+            return ((JavaLeaderboard) response).getInfo().getUnix();
+        }
+
+        if (response instanceof JavaPlayerStats && ((JavaPlayerStats) response).getStats() != null) {
+            // The stats are from different boards, the newest one is the snapshot of the request
+            long snapshot = -1;
+            for (final JavaPlayerStats.Stat stat : ((JavaPlayerStats) response).getStats().values()) {
+                snapshot = Math.max(snapshot, stat.getUnix());
+            }
+            return snapshot;
+        }
+
+        return -1;
+    }
+
     public ResponseModel getJavaGames() {
         return this.makeRequest(
                 "java/leaderboards/games",
@@ -97,15 +168,16 @@ public class MpStatsRestApiClient {
                                             final String board,
                                             final long unixTime,
                                             final boolean filtering) {
-        return this.makeRequest(
+        return this.makeSnapshotRequest(
+                String.join("|", PLAYER, player.toLowerCase(), game, board.toLowerCase(), String.valueOf(filtering)),
                 "java/leaderboards/player",
                 MapBuilder.<String, Object>ofHashMap(5)
                         .put(PLAYER, player)
                         .put(GAME, game)
                         .put(BOARD, board.toLowerCase())
-                        .put(DATE, unixTime)
                         .put(FILTERING, filtering)
                         .build(),
+                unixTime,
                 JavaPlayerStats.class
         );
     }
@@ -116,16 +188,17 @@ public class MpStatsRestApiClient {
                                             final String board,
                                             final long unixTime,
                                             final boolean filtering) {
-        return this.makeRequest(
+        return this.makeSnapshotRequest(
+                String.join("|", PLAYER, playerUUId.toString(), game, board.toLowerCase(), String.valueOf(filtering)),
                 "java/leaderboards/playerUUID",
                 MapBuilder.<String, Object>ofHashMap(5)
                         .put("uuid", playerUUId.toString())
                         .put(PLAYER, player)
                         .put(GAME, game)
                         .put(BOARD, board.toLowerCase())
-                        .put(DATE, unixTime)
                         .put(FILTERING, filtering)
                         .build(),
+                unixTime,
                 JavaPlayerStats.class
         );
     }
@@ -137,7 +210,8 @@ public class MpStatsRestApiClient {
                                             final int endPos,
                                             final long unixTime,
                                             final boolean filtering) {
-        return this.makeRequest(
+        return this.makeSnapshotRequest(
+                String.join("|", "leaderboard", game, stat, board.toLowerCase(), String.valueOf(filtering)),
                 "java/leaderboards/leaderboard",
                 MapBuilder.<String, Object>ofHashMap(7)
                         .put(GAME, game)
@@ -145,9 +219,9 @@ public class MpStatsRestApiClient {
                         .put(BOARD, board.toLowerCase())
                         .put("startPosition", startPos)
                         .put("endPosition", endPos)
-                        .put(DATE, unixTime)
                         .put(FILTERING, filtering)
                         .build(),
+                unixTime,
                 JavaLeaderboard.class
         );
     }
@@ -259,6 +333,11 @@ public class MpStatsRestApiClient {
                     .queryString(BOARD, board.toLowerCase())
                     .queryString("uuid", uuid.toString())
                     .asEmpty();
+
+            // Filtered responses of the game could still contain the player
+            this.snapshotResponses.asMap().keySet().removeIf(request ->
+                    Boolean.TRUE.equals(request.getParams().get(FILTERING)) && game.equals(request.getParams().get(GAME))
+            );
         }
     }
 
@@ -271,31 +350,46 @@ public class MpStatsRestApiClient {
         }
     }
 
-    public void addJavaBoardAlias(final String board, final String alias) {
-        if (this.isValidCredentials()) {
-            this.unirest.post("java/leaderboards/alias/board")
-                    .queryString(BOARD, board.toLowerCase())
-                    .queryString(ALIAS, alias)
-                    .asEmpty();
+    public boolean addJavaBoardAlias(final String board, final String alias) {
+        if (!this.isValidCredentials()) {
+            return false;
         }
+
+        return this.unirest.post("java/leaderboards/alias/board")
+                .queryString(BOARD, board.toLowerCase())
+                .queryString(ALIAS, alias)
+                .asEmpty()
+                .isSuccess();
     }
 
-    public void addJavaGameAlias(final String game, final String alias) {
-        if (this.isValidCredentials()) {
-            this.unirest.post("java/leaderboards/alias/game")
-                    .queryString(GAME, game)
-                    .queryString(ALIAS, alias)
-                    .asEmpty();
+    public boolean addJavaGameAlias(final String game, final String alias) {
+        if (!this.isValidCredentials()) {
+            return false;
         }
+
+        return this.unirest.post("java/leaderboards/alias/game")
+                .queryString(GAME, game)
+                .queryString(ALIAS, alias)
+                .asEmpty()
+                .isSuccess();
     }
 
-    public void addJavaStatAlias(final String game, final String stat, final String alias) {
-        if (this.isValidCredentials()) {
-            this.unirest.post("java/leaderboards/alias/stat")
-                    .queryString(GAME, game)
-                    .queryString(STAT, stat)
-                    .queryString(ALIAS, alias)
-                    .asEmpty();
+    public boolean addJavaStatAlias(final String game, final String stat, final String alias) {
+        if (!this.isValidCredentials()) {
+            return false;
         }
+
+        return this.unirest.post("java/leaderboards/alias/stat")
+                .queryString(GAME, game)
+                .queryString(STAT, stat)
+                .queryString(ALIAS, alias)
+                .asEmpty()
+                .isSuccess();
+    }
+
+    @Data
+    private static class SnapshotRequest {
+        private final String url;
+        private final Map<String, Object> params;
     }
 }
@@ -0,0 +1,106 @@
+package de.timmi6790.mineplex_stats.statsapi;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Learns which requested dates land on which snapshot of one board.
+ * The api answers with the newest snapshot for the requested date, so every past date between two dates that returned
+ * the same snapshot returns it as well. Those dates are resolved to one date, which makes equivalent requests equal.
+ * Dates in the future return the newest snapshot, they are resolved to the last of them until the confirmation expires.
+ */
+class SnapshotTimeline {
+    private static final int MAX_SNAPSHOTS = 256;
+    // Recent dates are not learned, a snapshot of them could still be in progress
+    private static final long SETTLE_TIME = TimeUnit.HOURS.toSeconds(1);
+
+    // Snapshot ranges by their first date. Ranges never overlap
+    private final NavigableMap<Long, SnapshotRange> rangesByFirstDate = new TreeMap<>();
+    private final Map<Long, SnapshotRange> rangesBySnapshot = new HashMap<>();
+
+    private long latestDate = -1;
+    private long latestConfirmedAt = 0;
+
+    /**
+     * @return the date to request instead of the date, or the date itself if it is unknown
+     */
+    synchronized long resolve(final long date, final long now, final long latestConfirmationTime) {
+        if (date >= now) {
+            if (this.latestDate != -1 && now - this.latestConfirmedAt <= latestConfirmationTime) {
+                return this.latestDate;
+            }
+            return date;
+        }
+
+        final Map.Entry<Long, SnapshotRange> entry = this.rangesByFirstDate.floorEntry(date);
+        if (entry != null && date <= entry.getValue().getLastDate()) {
+            return entry.getValue().getFirstDate();
+        }
+        return date;
+    }
+
+    synchronized void learn(final long date, final long snapshot, final long now) {
+        if (date >= now) {
+            // Requests for the resolved latest date are not confirmations, otherwise steady traffic would keep it forever
+            if (date != this.latestDate) {
+                this.latestDate = date;
+                this.latestConfirmedAt = now;
+            }
+            return;
+        }
+
+        if (date > now - SETTLE_TIME) {
+            return;
+        }
+
+        final SnapshotRange range = this.rangesBySnapshot.get(snapshot);
+        if (range == null) {
+            if (this.rangesBySnapshot.size() >= MAX_SNAPSHOTS) {
+                this.removeRange(this.rangesByFirstDate.firstEntry().getValue());
+            }
+
+            final SnapshotRange newRange = new SnapshotRange(snapshot, date, date);
+            if (!this.overlaps(newRange)) {
+                this.rangesBySnapshot.put(snapshot, newRange);
+                this.rangesByFirstDate.put(date, newRange);
+            }
+            return;
+        }
+
+        final SnapshotRange extendedRange = new SnapshotRange(
+                snapshot,
+                Math.min(range.getFirstDate(), date),
+                Math.max(range.getLastDate(), date)
+        );
+        this.removeRange(range);
+        // Only happens if the api answers are not ordered, the dates in between are unknown then
+        if (!this.overlaps(extendedRange)) {
+            this.rangesBySnapshot.put(snapshot, extendedRange);
+            this.rangesByFirstDate.put(extendedRange.getFirstDate(), extendedRange);
+        }
+    }
+
+    private boolean overlaps(final SnapshotRange range) {
+        final Map.Entry<Long, SnapshotRange> lower = this.rangesByFirstDate.floorEntry(range.getLastDate());
+        return lower != null && lower.getValue().getLastDate() >= range.getFirstDate();
+    }
+
+    private void removeRange(final SnapshotRange range) {
+        this.rangesBySnapshot.remove(range.getSnapshot());
+        this.rangesByFirstDate.remove(range.getFirstDate());
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class SnapshotRange {
+        private final long snapshot;
+        private final long firstDate;
+        private final long lastDate;
+    }
+}
@@ -1,70 +1,254 @@
 package de.timmi6790.mineplex_stats.statsapi.deserializer;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaBoard;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGame;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaGamesModel;
 import de.timmi6790.mineplex_stats.statsapi.models.java.JavaStat;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-public class JavaGamesModelDeserializer implements JsonDeserializer<JavaGamesModel> {
+/**
+ * Streaming deserializer for the games response.
+ * The payload is walked exactly once and the game, stat and board graph is created directly from the reader,
+ * without building an intermediate json tree. Repeated strings, like the board names that are part of every stat,
+ * are shared between all nodes of one response.
+ * Writing is left to the reflective adapter of gson.
+ */
+public class JavaGamesModelDeserializer implements TypeAdapterFactory {
     private static final String ALIAS_NAME = "aliasNames";
+    private static final String DESCRIPTION = "description";
+    private static final String[] EMPTY_ARRAY = new String[0];
 
     @Override
-    public JavaGamesModel deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) {
-        final Gson gson = new Gson();
-
-        final Map<String, JavaGame> parsedGames = new HashMap<>();
-        final JsonObject gamesObject = json.getAsJsonObject().getAsJsonObject("games");
-        for (final String gameName : gamesObject.keySet()) {
-            final JsonObject game = gamesObject.getAsJsonObject(gameName);
-
-            final Map<String, JavaStat> stats = new HashMap<>();
-            final JsonObject statsObject = game.getAsJsonObject("stats");
-            for (final String statName : statsObject.keySet()) {
-                final JsonObject stat = statsObject.getAsJsonObject(statName);
-
-                final Map<String, JavaBoard> boards = new HashMap<>();
-                final JsonObject boardsObject = stat.getAsJsonObject("boards");
-                for (final String boardName : boardsObject.keySet()) {
-                    final JsonObject board = boardsObject.getAsJsonObject(boardName);
-                    boards.put(
-                            boardName.toLowerCase(),
-                            new JavaBoard(
-                                    board.get("board").getAsString(),
-                                    gson.fromJson(board.getAsJsonArray(ALIAS_NAME).toString(), String[].class)
-                            )
-                    );
-                }
-
-                stats.put(
-                        JavaGame.getCleanStat(statName).toLowerCase(),
-                        new JavaStat(
-                                stat.get("stat").getAsString(),
-                                gson.fromJson(stat.getAsJsonArray(ALIAS_NAME).toString(), String[].class),
-                                stat.get("achievement").getAsBoolean(),
-                                stat.get("description").getAsString(),
-                                boards
-                        )
-                );
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        if (type.getRawType() != JavaGamesModel.class) {
+            return null;
+        }
+
+        final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(final JsonWriter out, final T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(final JsonReader in) throws IOException {
+                return (T) JavaGamesModelDeserializer.this.readGamesModel(in);
+            }
+        }.nullSafe();
+    }
+
+    private JavaGamesModel readGamesModel(final JsonReader in) throws IOException {
+        final Map<String, String> stringPool = new HashMap<>();
+        Map<String, JavaGame> parsedGames = new HashMap<>();
+        Boolean success = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "success":
+                    success = this.readBoolean(in);
+                    break;
+                case "games":
+                    parsedGames = this.readGames(in, stringPool);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        final JavaGamesModel gamesModel = new JavaGamesModel(parsedGames);
+        gamesModel.setSuccess(success);
+        return gamesModel;
+    }
+
+    private Map<String, JavaGame> readGames(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        final Map<String, JavaGame> games = new HashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            final String gameName = in.nextName();
+            games.put(gameName.toLowerCase(), this.readGame(in, stringPool));
+        }
+        in.endObject();
+
+        return games;
+    }
+
+    private JavaGame readGame(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        String name = "";
+        String[] aliasNames = EMPTY_ARRAY;
+        String category = "";
+        String wikiUrl = "";
+        String description = "";
+        Map<String, JavaStat> stats = new HashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "game":
+                    name = this.readString(in, stringPool);
+                    break;
+                case ALIAS_NAME:
+                    aliasNames = this.readStringArray(in, stringPool);
+                    break;
+                case "category":
+                    category = this.readString(in, stringPool);
+                    break;
+                case "wikiUrl":
+                    wikiUrl = this.readString(in, stringPool);
+                    break;
+                case DESCRIPTION:
+                    description = this.readString(in, stringPool);
+                    break;
+                case "stats":
+                    stats = this.readStats(in, stringPool);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        return new JavaGame(name, aliasNames, category, wikiUrl, description, stats);
+    }
+
+    private Map<String, JavaStat> readStats(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        final Map<String, JavaStat> stats = new HashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            final String statName = in.nextName();
+            stats.put(JavaGame.getCleanStat(statName).toLowerCase(), this.readStat(in, stringPool));
+        }
+        in.endObject();
+
+        return stats;
+    }
+
+    private JavaStat readStat(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        String name = "";
+        String[] aliasNames = EMPTY_ARRAY;
+        boolean achievement = false;
+        String description = "";
+        Map<String, JavaBoard> boards = new HashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "stat":
+                    name = this.readString(in, stringPool);
+                    break;
+                case ALIAS_NAME:
+                    aliasNames = this.readStringArray(in, stringPool);
+                    break;
+                case "achievement":
+                    achievement = this.readBoolean(in);
+                    break;
+                case DESCRIPTION:
+                    description = this.readString(in, stringPool);
+                    break;
+                case "boards":
+                    boards = this.readBoards(in, stringPool);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        return new JavaStat(name, aliasNames, achievement, description, boards);
+    }
+
+    private Map<String, JavaBoard> readBoards(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        final Map<String, JavaBoard> boards = new HashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            final String boardName = in.nextName();
+            boards.put(this.intern(boardName.toLowerCase(), stringPool), this.readBoard(in, stringPool));
+        }
+        in.endObject();
+
+        return boards;
+    }
+
+    private JavaBoard readBoard(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        String name = "";
+        String[] aliasNames = EMPTY_ARRAY;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "board":
+                    name = this.readString(in, stringPool);
+                    break;
+                case ALIAS_NAME:
+                    aliasNames = this.readStringArray(in, stringPool);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
             }
+        }
+        in.endObject();
 
-            parsedGames.put(
-                    gameName.toLowerCase(),
-                    new JavaGame(
-                            game.get("game").getAsString(),
-                            gson.fromJson(game.getAsJsonArray(ALIAS_NAME).toString(), String[].class),
-                            game.get("category").getAsString(),
-                            game.get("wikiUrl").getAsString(),
-                            game.get("description").getAsString(),
-                            stats
-                    )
-            );
+        return new JavaBoard(name, aliasNames);
+    }
+
+    private String readString(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return "";
+        }
+
+        return this.intern(in.nextString(), stringPool);
+    }
+
+    private boolean readBoolean(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+
+        return in.nextBoolean();
+    }
+
+    private String[] readStringArray(final JsonReader in, final Map<String, String> stringPool) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return EMPTY_ARRAY;
         }
 
-        return new JavaGamesModel(parsedGames);
+        final List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(this.readString(in, stringPool));
+        }
+        in.endArray();
+
+        return values.isEmpty() ? EMPTY_ARRAY : values.toArray(EMPTY_ARRAY);
+    }
+
+    private String intern(final String value, final Map<String, String> stringPool) {
+        final String pooled = stringPool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
     }
 }
@@ -1,4 +1,11 @@
 package de.timmi6790.mineplex_stats.statsapi.models;
 
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
 public class ResponseModel {
+    // Read together with the model, null if the response has no success flag
+    private Boolean success;
 }
@@ -3,6 +3,8 @@ package de.timmi6790.mineplex_stats.statsapi.models.java;
 import lombok.Data;
 import lombok.NonNull;
 
+import java.util.Arrays;
+
 @Data
 public class JavaBoard {
     private final String name;
@@ -16,4 +18,10 @@ public class JavaBoard {
     public String[] getAliasNames() {
         return this.aliasNames.clone();
     }
+
+    public JavaBoard withAliasName(@NonNull final String aliasName) {
+        final String[] newAliasNames = Arrays.copyOf(this.aliasNames, this.aliasNames.length + 1);
+        newAliasNames[this.aliasNames.length] = aliasName;
+        return new JavaBoard(this.name, newAliasNames);
+    }
 }
@@ -69,4 +69,22 @@ public class JavaGame {
 
         return this.sortedStatsNames;
     }
+
+    public JavaGame withAliasName(final String aliasName) {
+        final String[] newAliasNames = Arrays.copyOf(this.aliasNames, this.aliasNames.length + 1);
+        newAliasNames[this.aliasNames.length] = aliasName;
+        return new JavaGame(this.name, newAliasNames, this.category, this.wikiUrl, this.description, this.stats);
+    }
+
+    public JavaGame withStat(final JavaStat stat) {
+        return this.withStats(Collections.singletonList(stat));
+    }
+
+    public JavaGame withStats(final Collection<JavaStat> changedStats) {
+        final Map<String, JavaStat> newStats = new HashMap<>(this.stats);
+        for (final JavaStat stat : changedStats) {
+            newStats.put(getCleanStat(stat.getName()).toLowerCase(), stat);
+        }
+        return new JavaGame(this.name, this.aliasNames, this.category, this.wikiUrl, this.description, newStats);
+    }
 }
\ No newline at end of file
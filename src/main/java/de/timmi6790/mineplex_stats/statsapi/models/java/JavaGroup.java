@@ -18,7 +18,8 @@ public class JavaGroup {
     private final String description;
     private final String[] aliasNames;
     private final List<String> games;
-    private List<JavaStat> groupStats;
+    // Created on the first access, from the games at that time
+    private volatile List<JavaStat> groupStats;
 
     @Getter(lazy = true)
     private static final MineplexStatsModule module = DiscordBot.getInstance().getModuleManager().getModuleOrThrow(MineplexStatsModule.class);
@@ -66,16 +67,25 @@ public class JavaGroup {
     }
 
     public List<JavaStat> getStats() {
-        if (this.groupStats == null) {
-            this.groupStats = this.getGames()
+        List<JavaStat> stats = this.groupStats;
+        if (stats == null) {
+            stats = this.getGames()
                     .stream()
                     .flatMap(game -> game.getStats().values().stream())
                     .sorted(new StatsComparator())
                     .distinct()
                     .collect(Collectors.toList());
+            this.groupStats = stats;
         }
 
-        return this.groupStats;
+        return stats;
+    }
+
+    /**
+     * Copy of the group that creates its stats again from the current games.
+     */
+    public JavaGroup withoutGroupStats() {
+        return new JavaGroup(this.group, this.description, this.aliasNames, this.games, null);
     }
 
     public Set<String> getStatNames() {
@@ -59,4 +59,16 @@ public class JavaStat {
         name = this.boardAlias.getOrDefault(name.toLowerCase(), name.toLowerCase());
         return Optional.ofNullable(this.boards.get(name));
     }
+
+    public JavaStat withAliasName(final String aliasName) {
+        final String[] newAliasNames = Arrays.copyOf(this.aliasNames, this.aliasNames.length + 1);
+        newAliasNames[this.aliasNames.length] = aliasName;
+        return new JavaStat(this.name, newAliasNames, this.achievement, this.description, this.boards);
+    }
+
+    public JavaStat withBoard(final JavaBoard board) {
+        final Map<String, JavaBoard> newBoards = new CaseInsensitiveMap<>(this.boards);
+        newBoards.put(board.getName(), board);
+        return new JavaStat(this.name, this.aliasNames, this.achievement, this.description, newBoards);
+    }
 }
\ No newline at end of file
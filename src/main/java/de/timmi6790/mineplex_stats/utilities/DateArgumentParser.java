@@ -0,0 +1,107 @@
+package de.timmi6790.mineplex_stats.utilities;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.ocpsoft.prettytime.nlp.PrettyTimeParser;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the date arguments of our commands. The common forms are parsed directly, everything else by PrettyTime.
+ * Like PrettyTime, dates without a time use the current time of the day.
+ */
+@UtilityClass
+public class DateArgumentParser {
+    private static final Pattern US_DATE = Pattern.compile("^(\\d{1,2})/(\\d{1,2})/(\\d{4})$");
+    private static final Pattern EUROPEAN_DATE = Pattern.compile("^(\\d{1,2})\\.(\\d{1,2})\\.(\\d{4})$");
+    private static final Pattern ISO_DATE = Pattern.compile("^(\\d{4})-(\\d{1,2})-(\\d{1,2})$");
+    private static final Pattern DAYS_AGO = Pattern.compile("^(\\d{1,5}) days? ago$");
+
+    // The parser is expensive to create and not thread safe
+    private static final ThreadLocal<PrettyTimeParser> PRETTY_TIME_PARSER = ThreadLocal.withInitial(PrettyTimeParser::new);
+    // Results of PrettyTime by phrase. Only cached shortly, relative phrases move with the current time
+    private static final Cache<String, Long> PHRASE_CACHE = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * @return the unix time in seconds, empty if the input is not a date
+     */
+    public Optional<Long> parseUnixTime(@NonNull final String input) {
+        final String phrase = input.trim().toLowerCase(Locale.ENGLISH);
+
+        final Optional<ZonedDateTime> date = parseCommonDate(phrase, ZonedDateTime.now());
+        if (date.isPresent()) {
+            return Optional.of(date.get().toEpochSecond());
+        }
+
+        final Long cachedUnixTime = PHRASE_CACHE.getIfPresent(phrase);
+        if (cachedUnixTime != null) {
+            return Optional.of(cachedUnixTime);
+        }
+
+        final List<Date> dates = PRETTY_TIME_PARSER.get().parse(phrase.replace(".", "/"));
+        if (dates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final long unixTime = TimeUnit.MILLISECONDS.toSeconds(dates.get(0).getTime());
+        PHRASE_CACHE.put(phrase, unixTime);
+        return Optional.of(unixTime);
+    }
+
+    private Optional<ZonedDateTime> parseCommonDate(final String phrase, final ZonedDateTime now) {
+        switch (phrase) {
+            case "now":
+            case "today":
+                return Optional.of(now);
+            case "yesterday":
+                return Optional.of(now.minusDays(1));
+            default:
+                break;
+        }
+
+        Matcher matcher = DAYS_AGO.matcher(phrase);
+        if (matcher.matches()) {
+            return Optional.of(now.minusDays(Long.parseLong(matcher.group(1))));
+        }
+
+        matcher = US_DATE.matcher(phrase);
+        if (matcher.matches()) {
+            return withDate(now, matcher.group(3), matcher.group(1), matcher.group(2));
+        }
+
+        matcher = EUROPEAN_DATE.matcher(phrase);
+        if (matcher.matches()) {
+            return withDate(now, matcher.group(3), matcher.group(2), matcher.group(1));
+        }
+
+        matcher = ISO_DATE.matcher(phrase);
+        if (matcher.matches()) {
+            return withDate(now, matcher.group(1), matcher.group(2), matcher.group(3));
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<ZonedDateTime> withDate(final ZonedDateTime now, final String year, final String month, final String day) {
+        try {
+            return Optional.of(now.with(LocalDate.of(Integer.parseInt(year), Integer.parseInt(month), Integer.parseInt(day))));
+        } catch (final DateTimeException ignore) {
+            // Left to PrettyTime
+            return Optional.empty();
+        }
+    }
+}
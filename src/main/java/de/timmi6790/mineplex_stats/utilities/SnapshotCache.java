@@ -0,0 +1,37 @@
+package de.timmi6790.mineplex_stats.utilities;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache for values that are derived from the loaded metadata.
+ * Every entry is bound to the metadata version it was created with, a new version will never see an old entry.
+ * Entries of old versions are evicted over time.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SnapshotCache<K, V> {
+    private final Cache<SnapshotKey<K>, V> cache;
+
+    public SnapshotCache(final long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public V get(final long version, final K key, final Function<? super K, ? extends V> loader) {
+        return this.cache.get(new SnapshotKey<>(version, key), snapshotKey -> loader.apply(snapshotKey.getKey()));
+    }
+
+    @Data
+    private static class SnapshotKey<K> {
+        private final long version;
+        private final K key;
+    }
+}
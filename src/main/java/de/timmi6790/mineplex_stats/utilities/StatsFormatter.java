@@ -0,0 +1,177 @@
+package de.timmi6790.mineplex_stats.utilities;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread safe formatting of the numbers, durations and dates shown in our tables.
+ * The texts are written into a per thread buffer, the output equals the former DecimalFormat and SimpleDateFormat output.
+ */
+@UtilityClass
+public class StatsFormatter {
+    // Numbers are written backwards into the end of the buffer, before they are moved to their position
+    private static final int BUFFER_SIZE = 64;
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[BUFFER_SIZE]);
+
+    private static final long SECONDS_PER_DAY = TimeUnit.DAYS.toSeconds(1);
+    // The calendar math below is only valid for 4 digit years after the gregorian cutover
+    private static final long MAX_FAST_UNIX_TIME = 253_402_300_799L;
+    private static final String UNIX_TIME_PATTERN = "MM/dd/yyyy HH:mm:ss z";
+    private static final String UNIX_TIME_ZONE = " UTC";
+
+    // Duration fractions formatted by ".##". Only x/24 hours and x/60 minutes or seconds occur, from -(divisor - 1) to divisor - 1
+    private static final String[] FRACTIONS_OF_DAY = createFractions(24);
+    private static final String[] FRACTIONS_OF_HOUR = createFractions(60);
+
+    private String[] createFractions(final int divisor) {
+        final DecimalFormat decimalFormat = new DecimalFormat(".##");
+        final DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        symbols.setDecimalSeparator('.');
+        decimalFormat.setDecimalFormatSymbols(symbols);
+
+        final String[] fractions = new String[divisor * 2 - 1];
+        for (int value = -(divisor - 1); divisor > value; value++) {
+            fractions[value + divisor - 1] = decimalFormat.format(value / (double) divisor);
+        }
+        return fractions;
+    }
+
+    /**
+     * Formats the number with "," as grouping separator, like 1,234,567.
+     */
+    public String formatNumber(final long number) {
+        final char[] buffer = BUFFER.get();
+        return new String(buffer, 0, writeNumber(buffer, 0, number, true));
+    }
+
+    /**
+     * Formats the seconds in the largest unit, with up to two fraction digits of the next smaller unit, like 1.5 days.
+     */
+    public String formatTime(final long time) {
+        long remaining = time;
+        final long days = TimeUnit.SECONDS.toDays(remaining);
+        remaining -= TimeUnit.DAYS.toSeconds(days);
+
+        final long hours = TimeUnit.SECONDS.toHours(remaining);
+        remaining -= TimeUnit.HOURS.toSeconds(hours);
+
+        if (days != 0) {
+            if (hours == 0) {
+                return formatDuration(days, null, days > 1 ? " days" : " day");
+            }
+
+            return formatDuration(days, FRACTIONS_OF_DAY[(int) hours + 23], " days");
+        }
+
+        final long minutes = TimeUnit.SECONDS.toMinutes(remaining);
+        remaining -= TimeUnit.MINUTES.toSeconds(minutes);
+        if (hours != 0) {
+            if (minutes == 0) {
+                return formatDuration(hours, null, hours > 1 ? " hours" : " hour");
+            }
+
+            return formatDuration(hours, FRACTIONS_OF_HOUR[(int) minutes + 59], " hours");
+        }
+
+        final long seconds = remaining;
+        if (minutes != 0) {
+            if (seconds == 0) {
+                return formatDuration(minutes, null, minutes > 1 ? " minutes" : " minute");
+            }
+
+            return formatDuration(minutes, FRACTIONS_OF_HOUR[(int) seconds + 59], " minutes");
+        }
+
+        return formatDuration(seconds, null, seconds > 1 ? " seconds" : " second");
+    }
+
+    private String formatDuration(final long value, final String fraction, final String unit) {
+        final char[] buffer = BUFFER.get();
+        int position = writeNumber(buffer, 0, value, false);
+        if (fraction != null) {
+            position = writeString(buffer, position, fraction);
+        }
+        position = writeString(buffer, position, unit);
+        return new String(buffer, 0, position);
+    }
+
+    /**
+     * Formats the unix time in seconds as UTC date, like 01/30/2020 13:05:00 UTC.
+     */
+    public String formatUnixTime(final long unix) {
+        if (unix < 0 || unix > MAX_FAST_UNIX_TIME) {
+            final SimpleDateFormat dateFormat = new SimpleDateFormat(UNIX_TIME_PATTERN);
+            dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return dateFormat.format(new Date(TimeUnit.SECONDS.toMillis(unix)));
+        }
+
+        // Civil date from the days since the epoch, in eras of 400 years starting at the 1st March
+        final long daysSinceEpoch = unix / SECONDS_PER_DAY;
+        final int secondOfDay = (int) (unix % SECONDS_PER_DAY);
+        final long shiftedDays = daysSinceEpoch + 719_468;
+        final long era = shiftedDays / 146_097;
+        final long dayOfEra = shiftedDays - era * 146_097;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        final int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        final char[] buffer = BUFFER.get();
+        writeDigits(buffer, 0, month, 2);
+        buffer[2] = '/';
+        writeDigits(buffer, 3, day, 2);
+        buffer[5] = '/';
+        writeDigits(buffer, 6, year, 4);
+        buffer[10] = ' ';
+        writeDigits(buffer, 11, secondOfDay / 3_600, 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, secondOfDay % 60, 2);
+        return new String(buffer, 0, writeString(buffer, 19, UNIX_TIME_ZONE));
+    }
+
+    private int writeNumber(final char[] buffer, final int offset, final long number, final boolean grouped) {
+        // Negative digits, Long.MIN_VALUE can't be negated
+        long remaining = number > 0 ? -number : number;
+        int position = BUFFER_SIZE;
+        int digits = 0;
+        do {
+            if (grouped && digits != 0 && digits % 3 == 0) {
+                buffer[--position] = ',';
+            }
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+            digits++;
+        } while (remaining != 0);
+
+        if (number < 0) {
+            buffer[--position] = '-';
+        }
+
+        final int length = BUFFER_SIZE - position;
+        System.arraycopy(buffer, position, buffer, offset, length);
+        return offset + length;
+    }
+
+    private void writeDigits(final char[] buffer, final int offset, final int value, final int digits) {
+        int remaining = value;
+        for (int position = offset + digits - 1; position >= offset; position--) {
+            buffer[position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private int writeString(final char[] buffer, final int offset, final String text) {
+        text.getChars(0, text.length(), buffer, offset);
+        return offset + text.length();
+    }
+}
@@ -0,0 +1,108 @@
+package de.timmi6790.minecraft.mojang_api;
+
+import de.timmi6790.minecraft.mojang_api.models.MojangUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerNameStoreTest {
+    private static final MojangUser FIRST_USER = new MojangUser("Timmi6790", UUID.fromString("9d59d5ab-6b9a-4e5a-a6e7-1a9b9b1c8b1d"));
+    private static final MojangUser SECOND_USER = new MojangUser("Notch", UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5"));
+
+    @TempDir
+    Path directory;
+
+    private Path getStorePath() {
+        return this.directory.resolve("player_names.log");
+    }
+
+    private long countLines() throws IOException {
+        return Files.readAllLines(this.getStorePath(), StandardCharsets.UTF_8).size();
+    }
+
+    @Test
+    void replayChanges() throws IOException {
+        final PlayerNameStore store = PlayerNameStore.open(this.getStorePath());
+        store.put(FIRST_USER, 1);
+        store.put(SECOND_USER, 2);
+        store.remove("notch", 3);
+        store.close();
+
+        final PlayerNameStore reopenedStore = PlayerNameStore.open(this.getStorePath());
+        assertThat(reopenedStore.get("TIMMI6790"))
+                .hasValueSatisfying(player -> {
+                    assertThat(player.toMojangUser()).isEqualTo(FIRST_USER);
+                    assertThat(player.getChangedAt()).isEqualTo(1);
+                    assertThat(player.getVerifiedAt()).isEqualTo(1);
+                });
+        assertThat(reopenedStore.get("Notch")).isEmpty();
+        reopenedStore.close();
+    }
+
+    @Test
+    void keepChangeTimeOfSameUuid() throws IOException {
+        final PlayerNameStore store = PlayerNameStore.open(this.getStorePath());
+        store.put(FIRST_USER, 1);
+        store.put(FIRST_USER, 5);
+        assertThat(store.get(FIRST_USER.getName()))
+                .hasValueSatisfying(player -> {
+                    assertThat(player.getChangedAt()).isEqualTo(1);
+                    assertThat(player.getVerifiedAt()).isEqualTo(5);
+                });
+
+        // The name belongs to another player now
+        store.put(new MojangUser(FIRST_USER.getName(), SECOND_USER.getUuid()), 10);
+        assertThat(store.get(FIRST_USER.getName()))
+                .hasValueSatisfying(player -> assertThat(player.getChangedAt()).isEqualTo(10));
+        store.close();
+    }
+
+    @Test
+    void compactLog() throws IOException {
+        final PlayerNameStore store = PlayerNameStore.open(this.getStorePath());
+        for (int time = 0; 1_001 > time; time++) {
+            store.put(FIRST_USER, time);
+        }
+        assertThat(this.countLines()).isEqualTo(1);
+
+        store.put(SECOND_USER, 2_000);
+        store.close();
+        assertThat(this.countLines()).isEqualTo(2);
+
+        final PlayerNameStore reopenedStore = PlayerNameStore.open(this.getStorePath());
+        assertThat(reopenedStore.get(FIRST_USER.getName()))
+                .hasValueSatisfying(player -> assertThat(player.getVerifiedAt()).isEqualTo(1_000));
+        assertThat(reopenedStore.get(SECOND_USER.getName())).isPresent();
+        reopenedStore.close();
+    }
+
+    @Test
+    void compactIncompleteLog() throws IOException {
+        Files.write(
+                this.getStorePath(),
+                ("Timmi6790\t" + FIRST_USER.getUuid() + "\t1\t1\nNotch\t069a79f4").getBytes(StandardCharsets.UTF_8)
+        );
+
+        final PlayerNameStore store = PlayerNameStore.open(this.getStorePath());
+        assertThat(store.get(FIRST_USER.getName())).isPresent();
+        assertThat(store.get(SECOND_USER.getName())).isEmpty();
+        assertThat(this.countLines()).isEqualTo(1);
+
+        // Appended on its own line
+        store.put(SECOND_USER, 2);
+        store.close();
+        assertThat(this.countLines()).isEqualTo(2);
+
+        final PlayerNameStore reopenedStore = PlayerNameStore.open(this.getStorePath());
+        assertThat(reopenedStore.get(FIRST_USER.getName())).isPresent();
+        assertThat(reopenedStore.get(SECOND_USER.getName())).isPresent();
+        reopenedStore.close();
+    }
+}
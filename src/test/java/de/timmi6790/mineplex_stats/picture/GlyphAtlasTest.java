@@ -0,0 +1,70 @@
+package de.timmi6790.mineplex_stats.picture;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlyphAtlasTest {
+    private static final int WIDTH = 900;
+    private static final int HEIGHT = 150;
+    private static final int TEXT_X = 20;
+    private static final int TEXT_Y = 90;
+
+    private static Stream<Arguments> fontsAndTexts() {
+        final Font[] fonts = {PictureFonts.HEADER, PictureFonts.SUB_HEADER, PictureFonts.LEADERBOARD_HEADER, PictureFonts.LEADERBOARD};
+        final String[] texts = {
+                "Timmi6790",
+                "1,234,567",
+                "#1",
+                "Mineplex Stats",
+                "01/30/2020 13:05:00 UTC",
+                "1.5 days",
+                "Player_Name_16ch",
+                "Ratio 12.34%",
+                "AVWTyfj"
+        };
+
+        final List<Arguments> arguments = new ArrayList<>();
+        for (final Font font : fonts) {
+            for (final String text : texts) {
+                arguments.add(Arguments.of(font, text));
+            }
+        }
+        return arguments.stream();
+    }
+
+    private static BufferedImage createImage() {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+        AbstractPicture.createDiscordGraphics(image).dispose();
+        return image;
+    }
+
+    @ParameterizedTest
+    @MethodSource("fontsAndTexts")
+    void drawStringLikeJava2D(final Font font, final String text) {
+        final BufferedImage expected = createImage();
+        final Graphics2D gd = AbstractPicture.createDiscordGraphics(expected);
+        gd.setFont(font);
+        gd.drawString(text, TEXT_X, TEXT_Y);
+        gd.dispose();
+
+        final BufferedImage actual = createImage();
+        assertThat(GlyphAtlas.drawString(actual, text, font, TEXT_X, TEXT_Y)).isTrue();
+
+        for (int y = 0; HEIGHT > y; y++) {
+            for (int x = 0; WIDTH > x; x++) {
+                assertThat(actual.getRGB(x, y))
+                        .as("Pixel %d, %d of %s in %s", x, y, text, font)
+                        .isEqualTo(expected.getRGB(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package de.timmi6790.mineplex_stats.statsapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotTimelineTest {
+    private static final long NOW = 1_600_000_000L;
+    private static final long DAY = TimeUnit.DAYS.toSeconds(1);
+    private static final long CONFIRMATION_TIME = 60;
+
+    @Test
+    void resolveUnknownDate() {
+        final SnapshotTimeline timeline = new SnapshotTimeline();
+        assertThat(timeline.resolve(NOW - DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - DAY);
+        assertThat(timeline.resolve(NOW + DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW + DAY);
+    }
+
+    @Test
+    void resolveDatesOfOneSnapshot() {
+        final SnapshotTimeline timeline = new SnapshotTimeline();
+        timeline.learn(NOW - 5 * DAY, 1, NOW);
+        timeline.learn(NOW - 3 * DAY, 1, NOW);
+        timeline.learn(NOW - 2 * DAY, 2, NOW);
+
+        assertThat(timeline.resolve(NOW - 5 * DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - 5 * DAY);
+        assertThat(timeline.resolve(NOW - 4 * DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - 5 * DAY);
+        assertThat(timeline.resolve(NOW - 3 * DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - 5 * DAY);
+        // Between two snapshots
+        assertThat(timeline.resolve(NOW - 3 * DAY + 1, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - 3 * DAY + 1);
+        assertThat(timeline.resolve(NOW - 2 * DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - 2 * DAY);
+        assertThat(timeline.resolve(NOW - 6 * DAY, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - 6 * DAY);
+    }
+
+    @Test
+    void learnOnlySettledDates() {
+        final SnapshotTimeline timeline = new SnapshotTimeline();
+        final long recentDate = NOW - TimeUnit.MINUTES.toSeconds(30);
+        timeline.learn(NOW - DAY, 1, NOW);
+        timeline.learn(recentDate, 1, NOW);
+
+        assertThat(timeline.resolve(recentDate, NOW, CONFIRMATION_TIME)).isEqualTo(recentDate);
+        assertThat(timeline.resolve(NOW - DAY / 2, NOW, CONFIRMATION_TIME)).isEqualTo(NOW - DAY / 2);
+    }
+
+    @Test
+    void resolveFutureDatesToLatestDate() {
+        final SnapshotTimeline timeline = new SnapshotTimeline();
+        timeline.learn(NOW, 1, NOW);
+
+        assertThat(timeline.resolve(NOW + DAY, NOW + CONFIRMATION_TIME, CONFIRMATION_TIME)).isEqualTo(NOW);
+        // The confirmation expired
+        assertThat(timeline.resolve(NOW + DAY, NOW + CONFIRMATION_TIME + 1, CONFIRMATION_TIME)).isEqualTo(NOW + DAY);
+    }
+
+    @Test
+    void learnResolvedLatestDateKeepsConfirmation() {
+        final SnapshotTimeline timeline = new SnapshotTimeline();
+        timeline.learn(NOW, 1, NOW - CONFIRMATION_TIME);
+        // Request for the resolved date, it must not extend the confirmation
+        timeline.learn(NOW, 1, NOW - 1);
+
+        assertThat(timeline.resolve(NOW + DAY, NOW + 1, CONFIRMATION_TIME)).isEqualTo(NOW + DAY);
+
+        timeline.learn(NOW + DAY, 1, NOW + 1);
+        assertThat(timeline.resolve(NOW + 2 * DAY, NOW + 1, CONFIRMATION_TIME)).isEqualTo(NOW + DAY);
+    }
+}
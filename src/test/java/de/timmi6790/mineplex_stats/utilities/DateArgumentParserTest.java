@@ -0,0 +1,66 @@
+package de.timmi6790.mineplex_stats.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateArgumentParserTest {
+    private static LocalDate parseDate(final String input) {
+        final Optional<Long> unixTime = DateArgumentParser.parseUnixTime(input);
+        assertThat(unixTime).isPresent();
+        return Instant.ofEpochSecond(unixTime.get()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "1/30/2020;2020-01-30",
+            "30.1.2020;2020-01-30",
+            "2.1.2020;2020-01-02",
+            "2020-01-30;2020-01-30",
+            " 2020-1-2 ;2020-01-02"
+    })
+    void parseCommonDates(final String input, final String expected) {
+        assertThat(parseDate(input)).isEqualTo(LocalDate.parse(expected));
+    }
+
+    @Test
+    void parseCommonDateKeepsTimeOfDay() {
+        final long before = Instant.now().getEpochSecond();
+        final long unixTime = DateArgumentParser.parseUnixTime("today").orElseThrow(AssertionError::new);
+        final long after = Instant.now().getEpochSecond();
+
+        assertThat(unixTime).isBetween(before, after);
+    }
+
+    @Test
+    void parseRelativeDates() {
+        final LocalDate today = LocalDate.now();
+        assertThat(parseDate("now")).isEqualTo(today);
+        assertThat(parseDate("Yesterday")).isEqualTo(today.minusDays(1));
+        assertThat(parseDate("1 day ago")).isEqualTo(today.minusDays(1));
+        assertThat(parseDate("3 days ago")).isEqualTo(today.minusDays(3));
+    }
+
+    @Test
+    void parseInvalidDottedDateWithPrettyTime() {
+        // Not a valid day.month date, PrettyTime reads it as month/day
+        assertThat(parseDate("1.30.2020")).isEqualTo(LocalDate.of(2020, 1, 30));
+    }
+
+    @Test
+    void parseOtherPhrasesWithPrettyTime() {
+        assertThat(parseDate("2 weeks ago")).isEqualTo(LocalDate.now().minusWeeks(2));
+    }
+
+    @Test
+    void parseNoDate() {
+        assertThat(DateArgumentParser.parseUnixTime("stats")).isEmpty();
+    }
+}
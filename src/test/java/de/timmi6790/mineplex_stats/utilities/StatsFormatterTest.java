@@ -0,0 +1,70 @@
+package de.timmi6790.mineplex_stats.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsFormatterTest {
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "0;0",
+            "999;999",
+            "1000;1,000",
+            "-1234567;-1,234,567",
+            "9223372036854775807;9,223,372,036,854,775,807"
+    })
+    void formatNumber(final long number, final String expected) {
+        assertThat(StatsFormatter.formatNumber(number)).isEqualTo(expected);
+    }
+
+    @Test
+    void formatNumberMinValue() {
+        assertThat(StatsFormatter.formatNumber(Long.MIN_VALUE)).isEqualTo("-9,223,372,036,854,775,808");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "1;1 second",
+            "2;2 seconds",
+            "60;1 minute",
+            "90;1.5 minutes",
+            "3600;1 hour",
+            "5400;1.5 hours",
+            "7200;2 hours",
+            "86400;1 day",
+            "90000;1.04 days",
+            "129600;1.5 days",
+            "172800;2 days"
+    })
+    void formatTime(final long seconds, final String expected) {
+        assertThat(StatsFormatter.formatTime(seconds)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "0;01/01/1970 00:00:00 UTC",
+            "1580389500;01/30/2020 13:05:00 UTC",
+            "253402300799;12/31/9999 23:59:59 UTC"
+    })
+    void formatUnixTime(final long unixTime, final String expected) {
+        assertThat(StatsFormatter.formatUnixTime(unixTime)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, -86_400, 253_402_300_800L})
+    void formatUnixTimeOutsideFastRange(final long unixTime) {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy HH:mm:ss z");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        assertThat(StatsFormatter.formatUnixTime(unixTime))
+                .isEqualTo(dateFormat.format(new Date(TimeUnit.SECONDS.toMillis(unixTime))));
+    }
+}